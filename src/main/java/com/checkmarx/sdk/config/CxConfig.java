@@ -1,12 +1,25 @@
 package com.checkmarx.sdk.config;
 
+import com.checkmarx.sdk.service.FileScanRegistry;
+import com.checkmarx.sdk.service.InMemoryScanRegistry;
+import com.checkmarx.sdk.service.ScanRegistry;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.afterburner.AfterburnerModule;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.web.client.RestTemplate;
 import java.nio.charset.Charset;
+import java.util.List;
 
 @Configuration
 public class CxConfig {
@@ -24,11 +37,47 @@ public class CxConfig {
         HttpComponentsClientHttpRequestFactory requestFactory = new
                 HttpComponentsClientHttpRequestFactory(HttpClientBuilder.create().useSystemProperties().build());
         requestFactory.setConnectTimeout(properties.getHttpConnectionTimeout());
+        requestFactory.setConnectionRequestTimeout(properties.getHttpConnectionTimeout());
         requestFactory.setReadTimeout(properties.getHttpReadTimeout());
         restTemplate.setRequestFactory(requestFactory);
 
         restTemplate.getMessageConverters()
                 .add(0, new StringHttpMessageConverter(Charset.forName("UTF-8")));
+        List<HttpMessageConverter<?>> converters = restTemplate.getMessageConverters();
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter) {
+                converters.set(i, new MappingJackson2HttpMessageConverter(getObjectMapper()));
+            }
+        }
         return restTemplate;
     }
-}
\ No newline at end of file
+
+    /**
+     * Mapper of the CxGo rest template. It is not exposed as a bean so it does not replace the
+     * application's own ObjectMapper.
+     */
+    ObjectMapper getObjectMapper() {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES,
+                        DeserializationFeature.FAIL_ON_IGNORED_PROPERTIES,
+                        SerializationFeature.FAIL_ON_EMPTY_BEANS,
+                        MapperFeature.DEFAULT_VIEW_INCLUSION)
+                .build();
+        if (properties.getJacksonAfterburner()) {
+            mapper.registerModule(new AfterburnerModule());
+        }
+        if (properties.getLeanDeserialization()) {
+            LeanDtoMixIn.register(mapper);
+        }
+        return mapper;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(ScanRegistry.class)
+    public ScanRegistry scanRegistry() {
+        if ("file".equalsIgnoreCase(properties.getScanRegistry())) {
+            return new FileScanRegistry(properties.getStatePath());
+        }
+        return new InMemoryScanRegistry();
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -36,6 +37,14 @@ public class CxProperties {
     private String excludeFolders;
     private Boolean incremental = false;
     private String gitClonePath;
+    private String statePath;
+    private Boolean skipUnchangedBranches = false;
+    private Integer maxConcurrentClones = 10;
+    private Long workspaceQuota = 0L;
+    private Long workspaceCloneEstimate = 256L;
+    private Integer workspaceWaitTimeout = 600;
+    private Integer workspaceJanitorInterval = 30;
+    private Integer workspaceOrphanAge = 120;
     private Integer incrementalThreshold = 7;
     private Integer incrementalNumScans = 5;
     private String team;
@@ -49,6 +58,31 @@ public class CxProperties {
     private Integer httpConnectionTimeout = 30000;
     private Integer httpReadTimeout = 120000;
     private Integer scanPolling = 20000;
+    private Boolean scanBatchPolling = false;
+    private Boolean adaptiveScanPolling = false;
+    private Integer scanPollingMin = 2000;
+    private Integer scanPollingMax = 60000;
+    private Double scanPollingJitter = 0.1;
+    private Integer scanPollingThreads = 4;
+    private String scanRegistry = "memory";
+    private Long scanIndexMaxSize = 10000L;
+    private Long scanIndexExpiry = 1440L;
+    private Integer navigationTreeTtl = 300;
+    private Boolean navigationTreeSnapshot = false;
+    private Integer projectIndexTtl = 600;
+    private Boolean projectNameLookup = false;
+    private Boolean warmUp = false;
+    private Boolean cancelSupersededScans = false;
+    private Boolean streamScanResults = false;
+    private Boolean leanDeserialization = false;
+    private Boolean jacksonAfterburner = true;
+    private Boolean scanCache = false;
+    private Long scanCacheMaxSize = 512L;
+    private Boolean reportCache = false;
+    private Long reportCacheSize = 20L;
+    private Integer reportCacheTtl = 600;
+    private List<String> warmUpTeams = new ArrayList<>();
+    private Integer warmUpTimeout = 30;
     private Integer reportPolling = 5000;
     private Integer reportTimeout = 300000;
     private Integer codeSnippetLength = 2500;
@@ -309,6 +343,279 @@ public class CxProperties {
         this.scanPolling = scanPolling;
     }
 
+    /**
+     * Refresh all in-flight scans from one scan list request per polling interval.
+     */
+    public Boolean getScanBatchPolling() {
+        return scanBatchPolling;
+    }
+
+    public void setScanBatchPolling(Boolean scanBatchPolling) {
+        this.scanBatchPolling = scanBatchPolling;
+    }
+
+    /**
+     * Poll young scans often and back off as they run longer, aiming at the completion predicted from
+     * progress and earlier scans of the project. Bounded by scanPollingMin and scanPollingMax.
+     */
+    public Boolean getAdaptiveScanPolling() {
+        return adaptiveScanPolling;
+    }
+
+    public void setAdaptiveScanPolling(Boolean adaptiveScanPolling) {
+        this.adaptiveScanPolling = adaptiveScanPolling;
+    }
+
+    public Integer getScanPollingMin() {
+        return scanPollingMin;
+    }
+
+    public void setScanPollingMin(Integer scanPollingMin) {
+        this.scanPollingMin = scanPollingMin;
+    }
+
+    public Integer getScanPollingMax() {
+        return scanPollingMax;
+    }
+
+    public void setScanPollingMax(Integer scanPollingMax) {
+        this.scanPollingMax = scanPollingMax;
+    }
+
+    /**
+     * Relative random variation applied to adaptive polling intervals, e.g. 0.1 for +/- 10%.
+     */
+    public Double getScanPollingJitter() {
+        return scanPollingJitter;
+    }
+
+    public void setScanPollingJitter(Double scanPollingJitter) {
+        this.scanPollingJitter = scanPollingJitter;
+    }
+
+    /**
+     * Maximum number of scan status requests made at the same time.
+     */
+    public Integer getScanPollingThreads() {
+        return scanPollingThreads;
+    }
+
+    public void setScanPollingThreads(Integer scanPollingThreads) {
+        this.scanPollingThreads = scanPollingThreads;
+    }
+
+    /**
+     * Where in-flight scans are registered: "memory", or "file" to persist them under the state path so
+     * tracking is resumed after a restart.
+     */
+    public String getScanRegistry() {
+        return scanRegistry;
+    }
+
+    public void setScanRegistry(String scanRegistry) {
+        this.scanRegistry = scanRegistry;
+    }
+
+    /**
+     * Maximum number of team, project and scan entries kept in memory for results lookups.
+     */
+    public Long getScanIndexMaxSize() {
+        return scanIndexMaxSize;
+    }
+
+    public void setScanIndexMaxSize(Long scanIndexMaxSize) {
+        this.scanIndexMaxSize = scanIndexMaxSize;
+    }
+
+    /**
+     * Minutes after which an unused team, project or scan entry is evicted.
+     */
+    public Long getScanIndexExpiry() {
+        return scanIndexExpiry;
+    }
+
+    public void setScanIndexExpiry(Long scanIndexExpiry) {
+        this.scanIndexExpiry = scanIndexExpiry;
+    }
+
+    /**
+     * Seconds the cached navigation tree is used before it is refreshed; 0 fetches it on every lookup.
+     */
+    public Integer getNavigationTreeTtl() {
+        return navigationTreeTtl;
+    }
+
+    public void setNavigationTreeTtl(Integer navigationTreeTtl) {
+        this.navigationTreeTtl = navigationTreeTtl;
+    }
+
+    /**
+     * Persist the Business Unit index under the state path so it is available right after a restart.
+     */
+    public Boolean getNavigationTreeSnapshot() {
+        return navigationTreeSnapshot;
+    }
+
+    public void setNavigationTreeSnapshot(Boolean navigationTreeSnapshot) {
+        this.navigationTreeSnapshot = navigationTreeSnapshot;
+    }
+
+    /**
+     * Seconds a project name index of an application is kept before it is listed again.
+     */
+    public Integer getProjectIndexTtl() {
+        return projectIndexTtl;
+    }
+
+    public void setProjectIndexTtl(Integer projectIndexTtl) {
+        this.projectIndexTtl = projectIndexTtl;
+    }
+
+    /**
+     * Look up a project missing from the index by name on the server instead of listing all projects.
+     */
+    public Boolean getProjectNameLookup() {
+        return projectNameLookup;
+    }
+
+    public void setProjectNameLookup(Boolean projectNameLookup) {
+        this.projectNameLookup = projectNameLookup;
+    }
+
+    /**
+     * Log in and load the navigation tree and the project indexes of the configured teams on startup.
+     */
+    public Boolean getWarmUp() {
+        return warmUp;
+    }
+
+    public void setWarmUp(Boolean warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    /**
+     * Team paths whose project indexes are loaded on startup in addition to the default team.
+     */
+    public List<String> getWarmUpTeams() {
+        return warmUpTeams;
+    }
+
+    public void setWarmUpTeams(List<String> warmUpTeams) {
+        this.warmUpTeams = warmUpTeams;
+    }
+
+    /**
+     * Seconds the startup warm-up may take before the application starts without it.
+     */
+    public Integer getWarmUpTimeout() {
+        return warmUpTimeout;
+    }
+
+    public void setWarmUpTimeout(Integer warmUpTimeout) {
+        this.warmUpTimeout = warmUpTimeout;
+    }
+
+    /**
+     * Cancel in-flight scans of a project and branch when a newer scan of the same branch is submitted.
+     */
+    public Boolean getCancelSupersededScans() {
+        return cancelSupersededScans;
+    }
+
+    public void setCancelSupersededScans(Boolean cancelSupersededScans) {
+        this.cancelSupersededScans = cancelSupersededScans;
+    }
+
+    /**
+     * Decode scan results incrementally and filter each finding as it is read, instead of loading the
+     * complete results first.
+     */
+    public Boolean getStreamScanResults() {
+        return streamScanResults;
+    }
+
+    public void setStreamScanResults(Boolean streamScanResults) {
+        this.streamScanResults = streamScanResults;
+    }
+
+    /**
+     * Skip fields of CxGo result responses that are not mapped instead of keeping them on each DTO.
+     */
+    public Boolean getLeanDeserialization() {
+        return leanDeserialization;
+    }
+
+    public void setLeanDeserialization(Boolean leanDeserialization) {
+        this.leanDeserialization = leanDeserialization;
+    }
+
+    /**
+     * Bind CxGo responses with generated accessors instead of reflection.
+     */
+    public Boolean getJacksonAfterburner() {
+        return jacksonAfterburner;
+    }
+
+    public void setJacksonAfterburner(Boolean jacksonAfterburner) {
+        this.jacksonAfterburner = jacksonAfterburner;
+    }
+
+    /**
+     * Keep the responses of finished scans on disk under the state path, so reports can be generated
+     * again without calling CxGo.
+     */
+    public Boolean getScanCache() {
+        return scanCache;
+    }
+
+    public void setScanCache(Boolean scanCache) {
+        this.scanCache = scanCache;
+    }
+
+    /**
+     * Disk space of the scan cache in megabytes, the least recently used scans are evicted beyond it.
+     */
+    public Long getScanCacheMaxSize() {
+        return scanCacheMaxSize;
+    }
+
+    public void setScanCacheMaxSize(Long scanCacheMaxSize) {
+        this.scanCacheMaxSize = scanCacheMaxSize;
+    }
+
+    /**
+     * Keep recently built reports in memory, keyed by scan ID and filters.
+     */
+    public Boolean getReportCache() {
+        return reportCache;
+    }
+
+    public void setReportCache(Boolean reportCache) {
+        this.reportCache = reportCache;
+    }
+
+    /**
+     * Maximum number of reports kept in memory.
+     */
+    public Long getReportCacheSize() {
+        return reportCacheSize;
+    }
+
+    public void setReportCacheSize(Long reportCacheSize) {
+        this.reportCacheSize = reportCacheSize;
+    }
+
+    /**
+     * Seconds a report is kept in memory after it was built.
+     */
+    public Integer getReportCacheTtl() {
+        return reportCacheTtl;
+    }
+
+    public void setReportCacheTtl(Integer reportCacheTtl) {
+        this.reportCacheTtl = reportCacheTtl;
+    }
+
     public Integer getReportTimeout() {
         return reportTimeout;
     }
@@ -457,6 +764,94 @@ public class CxProperties {
         this.gitClonePath = gitClonePath;
     }
 
+    /**
+     * Directory used to persist SDK state between restarts; defaults to a hidden folder under the git clone path.
+     */
+    public String getStatePath() {
+        if(this.statePath == null){
+            return getGitClonePath().concat("/.cxgo");
+        }
+        return this.statePath;
+    }
+
+    public void setStatePath(String statePath) {
+        this.statePath = statePath;
+    }
+
+    public Boolean getSkipUnchangedBranches() {
+        return skipUnchangedBranches;
+    }
+
+    public void setSkipUnchangedBranches(Boolean skipUnchangedBranches) {
+        this.skipUnchangedBranches = skipUnchangedBranches;
+    }
+
+    /**
+     * Maximum number of clones prepared at the same time, 0 for no limit.
+     */
+    public Integer getMaxConcurrentClones() {
+        return maxConcurrentClones;
+    }
+
+    public void setMaxConcurrentClones(Integer maxConcurrentClones) {
+        this.maxConcurrentClones = maxConcurrentClones;
+    }
+
+    /**
+     * Disk quota in MB for clones and archives under the git clone path, 0 for no limit.
+     */
+    public Long getWorkspaceQuota() {
+        return workspaceQuota;
+    }
+
+    public void setWorkspaceQuota(Long workspaceQuota) {
+        this.workspaceQuota = workspaceQuota;
+    }
+
+    /**
+     * Size in MB reserved for a clone of a repository that has not been cloned before.
+     */
+    public Long getWorkspaceCloneEstimate() {
+        return workspaceCloneEstimate;
+    }
+
+    public void setWorkspaceCloneEstimate(Long workspaceCloneEstimate) {
+        this.workspaceCloneEstimate = workspaceCloneEstimate;
+    }
+
+    /**
+     * Seconds to wait for clone workspace before the scan is rejected.
+     */
+    public Integer getWorkspaceWaitTimeout() {
+        return workspaceWaitTimeout;
+    }
+
+    public void setWorkspaceWaitTimeout(Integer workspaceWaitTimeout) {
+        this.workspaceWaitTimeout = workspaceWaitTimeout;
+    }
+
+    /**
+     * Minutes between sweeps for orphaned clones and archives, 0 to disable the sweeps.
+     */
+    public Integer getWorkspaceJanitorInterval() {
+        return workspaceJanitorInterval;
+    }
+
+    public void setWorkspaceJanitorInterval(Integer workspaceJanitorInterval) {
+        this.workspaceJanitorInterval = workspaceJanitorInterval;
+    }
+
+    /**
+     * Minutes after which an unleased clone or archive is considered orphaned.
+     */
+    public Integer getWorkspaceOrphanAge() {
+        return workspaceOrphanAge;
+    }
+
+    public void setWorkspaceOrphanAge(Integer workspaceOrphanAge) {
+        this.workspaceOrphanAge = workspaceOrphanAge;
+    }
+
     @PostConstruct
     private void initTeam(){
         if(team != null && !team.startsWith(getTeamPathSeparator())){
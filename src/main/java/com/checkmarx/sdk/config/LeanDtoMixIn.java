@@ -0,0 +1,44 @@
+package com.checkmarx.sdk.config;
+
+import com.checkmarx.sdk.dto.od.OdScanNodeData;
+import com.checkmarx.sdk.dto.od.OdScanNodeFile;
+import com.checkmarx.sdk.dto.od.OdScanNodeItem;
+import com.checkmarx.sdk.dto.od.OdScanNodes;
+import com.checkmarx.sdk.dto.od.OdScanResultItem;
+import com.checkmarx.sdk.dto.od.OdScanResults;
+import com.checkmarx.sdk.dto.od.OdScanResultsData;
+import com.checkmarx.sdk.dto.od.ResultNode;
+import com.checkmarx.sdk.dto.od.SASTScanResult;
+import com.checkmarx.sdk.dto.od.SCAScanResult;
+import com.checkmarx.sdk.dto.od.Scan;
+import com.checkmarx.sdk.dto.od.ScanResults;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Mix-in for the CxGo result DTOs, which are decoded once per finding and node. It disables the any-setter
+ * that keeps every field without a property, so unknown fields are skipped by the parser instead of being
+ * copied into a map on each instance. Responses read for their additional properties, like the navigation
+ * tree, must not be listed here.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+abstract class LeanDtoMixIn {
+    private static final List<Class<?>> RESULT_TYPES = Arrays.asList(
+            ScanResults.class, SASTScanResult.class, SCAScanResult.class, ResultNode.class,
+            OdScanResults.class, OdScanResultsData.class, OdScanResultItem.class,
+            OdScanNodes.class, OdScanNodeData.class, OdScanNodeItem.class, OdScanNodeFile.class,
+            Scan.class);
+
+    @JsonAnySetter(enabled = false)
+    abstract void setAdditionalProperty(String name, Object value);
+
+    static void register(ObjectMapper mapper) {
+        for (Class<?> type : RESULT_TYPES) {
+            mapper.addMixIn(type, LeanDtoMixIn.class);
+        }
+    }
+}
@@ -5,15 +5,20 @@ import com.cx.restclient.ast.dto.sca.report.Finding;
 import com.cx.restclient.ast.dto.sca.report.Package;
 import com.checkmarx.sdk.dto.cx.CxScanSummary;
 import com.checkmarx.sdk.dto.ast.SCAResults;
+import com.checkmarx.sdk.dto.ast.Summary;
+import com.checkmarx.sdk.utils.IntObjectHashMap;
 
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.commons.lang3.math.NumberUtils;
 import org.modelmapper.Conditions;
 import org.modelmapper.ModelMapper;
 
 import java.beans.ConstructorProperties;
+import java.io.Serializable;
 import java.util.*;
 
 /**
@@ -21,6 +26,14 @@ import java.util.*;
  */
 public class ScanResults{
 
+    /// Copies the non-null properties of one result into another; thread safe and reused across merges
+    /// so the type map is only built once.
+    private static final ModelMapper MERGE_MAPPER = new ModelMapper();
+
+    static {
+        MERGE_MAPPER.getConfiguration().setPropertyCondition(Conditions.isNotNull());
+    }
+
     private Boolean osa = false;
     private String  projectId;
     private Integer sastScanId;
@@ -191,12 +204,117 @@ public class ScanResults{
         return "ScanResults(osa=" + this.getOsa()  + ", link=" + this.getLink() + ", files=" + this.getFiles() + ", loc=" + this.getLoc() + ", scanType=" + this.getScanType() + ", xIssues=" + this.getXIssues() + ")";
     }
 
+    /**
+     * @return a deep copy, which can be changed without affecting this instance. SCA findings and packages
+     * shared by the SCA results and the SCA issue details are still shared in the copy.
+     */
+    public ScanResults copy() {
+        Map<Object, Object> clones = new IdentityHashMap<>();
+        List<XIssue> issues = null;
+        if (xIssues != null) {
+            issues = new ArrayList<>(xIssues.size());
+            for (XIssue issue : xIssues) {
+                issues.add(issue.copy(clones));
+            }
+        }
+        CxScanSummary summary = null;
+        if (scanSummary != null) {
+            summary = new CxScanSummary();
+            summary.setHighSeverity(scanSummary.getHighSeverity());
+            summary.setMediumSeverity(scanSummary.getMediumSeverity());
+            summary.setLowSeverity(scanSummary.getLowSeverity());
+            summary.setInfoSeverity(scanSummary.getInfoSeverity());
+            summary.setStatisticsCalculationDate(scanSummary.getStatisticsCalculationDate());
+        }
+        SCAResults sca = null;
+        if (scaResults != null) {
+            sca = new SCAResults();
+            sca.setScanId(scaResults.getScanId());
+            sca.setSummary(copySummary(scaResults.getSummary()));
+            sca.setWebReportLink(scaResults.getWebReportLink());
+            sca.setFindings(copyAll(scaResults.getFindings(), clones));
+            sca.setPackages(copyAll(scaResults.getPackages(), clones));
+        }
+        ASTResults ast = null;
+        if (astResults != null) {
+            ast = new ASTResults();
+            ast.setResults(copyShared(astResults.getResults(), clones));
+        }
+        ScanResults copy = new ScanResults(osa, projectId, team, project, link, files, loc, scanType, issues,
+                copyDetails(additionalDetails), summary, sca, ast);
+        copy.setSastScanId(sastScanId);
+        copy.setOutput(output);
+        return copy;
+    }
+
+    private static Summary copySummary(Summary summary) {
+        if (summary == null) {
+            return null;
+        }
+        Summary copy = new Summary();
+        copy.setTotalPackages(summary.getTotalPackages());
+        copy.setDirectPackages(summary.getDirectPackages());
+        copy.setTotalOutdatedPackages(summary.getTotalOutdatedPackages());
+        copy.setRiskScore(summary.getRiskScore());
+        copy.setFindingCounts(summary.getFindingCounts() == null ? null : new HashMap<>(summary.getFindingCounts()));
+        return copy;
+    }
+
+    /**
+     * Copies a serializable object once per copied report, so objects shared within the report are shared
+     * within the copy.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Serializable> T copyShared(T value, Map<Object, Object> clones) {
+        if (value == null) {
+            return null;
+        }
+        return (T) clones.computeIfAbsent(value, v -> SerializationUtils.clone((Serializable) v));
+    }
+
+    private static <T extends Serializable> List<T> copyAll(List<T> values, Map<Object, Object> clones) {
+        if (values == null) {
+            return null;
+        }
+        List<T> copy = new ArrayList<>(values.size());
+        for (T value : values) {
+            copy.add(copyShared(value, clones));
+        }
+        return copy;
+    }
+
+    /**
+     * Copies the map and the maps and lists nested in it, including the SAST result maps.
+     */
+    private static Map<String, Object> copyDetails(Map<String, Object> details) {
+        if (details == null) {
+            return null;
+        }
+        Map<String, Object> copy = new HashMap<>(details);
+        copy.replaceAll((key, value) -> copyValue(value));
+        return copy;
+    }
+
+    private static Object copyValue(Object value) {
+        if (value instanceof FixedKeyMap) {
+            return ((FixedKeyMap<?>) value).copy();
+        } else if (value instanceof Map) {
+            Map<Object, Object> copy = new HashMap<>((Map<?, ?>) value);
+            copy.replaceAll((key, nested) -> copyValue(nested));
+            return copy;
+        } else if (value instanceof List) {
+            List<Object> copy = new ArrayList<>(((List<?>) value).size());
+            for (Object nested : (List<?>) value) {
+                copy.add(copyValue(nested));
+            }
+            return copy;
+        }
+        return value;
+    }
+
     public void mergeWith(ScanResults scanResultsToMerge) {
         if(scanResultsToMerge!=null) {
-            ModelMapper modelMapper = new ModelMapper();
-            modelMapper.getConfiguration().setPropertyCondition(Conditions.isNotNull());
-
-            modelMapper.map(scanResultsToMerge, this);
+            MERGE_MAPPER.map(scanResultsToMerge, this);
         }
     }
 
@@ -243,6 +361,50 @@ public class ScanResults{
             return new XIssueBuilder();
         }
 
+        XIssue copy(Map<Object, Object> clones) {
+            Map<Integer, IssueDetails> detailsCopy = null;
+            if (details != null) {
+                detailsCopy = details instanceof IntObjectHashMap ? new IntObjectHashMap<>(details.size()) : new HashMap<>();
+                for (Map.Entry<Integer, IssueDetails> entry : details.entrySet()) {
+                    IssueDetails value = entry.getValue();
+                    detailsCopy.put(entry.getKey(), value == null ? null : new IssueDetails()
+                            .falsePositive(value.isFalsePositive())
+                            .codeSnippet(value.getCodeSnippet())
+                            .comment(value.getComment()));
+                }
+            }
+            XIssue copy = new XIssue(vulnerability, vulnerabilityStatus, similarityId, cwe, cve, description, language,
+                    severity, link, filename, gitUrl,
+                    copyOsaDetails(osaDetails), copyScaDetails(scaDetails, clones),
+                    detailsCopy, copyDetails(additionalDetails));
+            copy.falsePositiveCount = falsePositiveCount;
+            return copy;
+        }
+
+        private static List<OsaDetails> copyOsaDetails(List<OsaDetails> osaDetails) {
+            if (osaDetails == null) {
+                return null;
+            }
+            List<OsaDetails> copy = new ArrayList<>(osaDetails.size());
+            for (OsaDetails details : osaDetails) {
+                copy.add(details == null ? null : new OsaDetails(details.getCve(), details.getDescription(),
+                        details.getRecommendation(), details.getSeverity(), details.getUrl(), details.getVersion()));
+            }
+            return copy;
+        }
+
+        private static List<ScaDetails> copyScaDetails(List<ScaDetails> scaDetails, Map<Object, Object> clones) {
+            if (scaDetails == null) {
+                return null;
+            }
+            List<ScaDetails> copy = new ArrayList<>(scaDetails.size());
+            for (ScaDetails details : scaDetails) {
+                copy.add(details == null ? null : new ScaDetails(details.getVulnerabilityLink(),
+                        copyShared(details.getFinding(), clones), copyShared(details.getVulnerabilityPackage(), clones)));
+            }
+            return copy;
+        }
+
         @Override
         public boolean equals(Object o) {
             if (this == o) return true;
@@ -345,6 +507,30 @@ public class ScanResults{
             return this.details;
         }
 
+        /**
+         * @return details of the issue on the line, or null if there are none
+         */
+        public IssueDetails getDetail(int line) {
+            if (this.details instanceof IntObjectHashMap) {
+                return ((IntObjectHashMap<IssueDetails>) this.details).get(line);
+            }
+            return this.details == null ? null : this.details.get(line);
+        }
+
+        /**
+         * Sets the details of the issue on the line, creating the details map if needed.
+         */
+        public void putDetail(int line, IssueDetails issueDetails) {
+            if (this.details == null) {
+                this.details = new IntObjectHashMap<>();
+            }
+            if (this.details instanceof IntObjectHashMap) {
+                ((IntObjectHashMap<IssueDetails>) this.details).put(line, issueDetails);
+            } else {
+                this.details.put(line, issueDetails);
+            }
+        }
+
         public Map<String, Object> getAdditionalDetails() {
             if(this.additionalDetails == null){
                 this.additionalDetails = new HashMap<>();
@@ -553,6 +739,281 @@ public class ScanResults{
 
     }
 
+    /**
+     * Map over a fixed set of keys whose values are read from the fields of the subclass, so no entries
+     * are stored. The first change copies the entries into a HashMap, which backs the map and the getters
+     * of the subclass from then on. Keys are iterated in the order a HashMap of the same keys iterates
+     * them, so the map serializes and prints like the HashMap it replaces.
+     */
+    private abstract static class FixedKeyMap<V> extends AbstractMap<String, V> {
+        /// Entries once the map was changed, null while the fields back it
+        private Map<String, V> entries;
+        private Set<Entry<String, V>> entrySet;
+
+        abstract String[] keys();
+
+        abstract V value(int index);
+
+        /**
+         * @return a map with the same fields, not sharing any changes made to this map
+         */
+        abstract FixedKeyMap<V> newCopy();
+
+        /**
+         * @return the current value of the key at the index, changes made through the map included
+         */
+        V current(int index) {
+            return entries != null ? entries.get(keys()[index]) : value(index);
+        }
+
+        boolean isChanged() {
+            return entries != null;
+        }
+
+        @SuppressWarnings("unchecked")
+        FixedKeyMap<V> copy() {
+            FixedKeyMap<V> copy = newCopy();
+            if (entries != null) {
+                Map<String, V> copied = new HashMap<>(entries);
+                copied.replaceAll((key, value) -> (V) copyValue(value));
+                copy.entries = copied;
+            }
+            return copy;
+        }
+
+        @Override
+        public V get(Object key) {
+            if (entries != null) {
+                return entries.get(key);
+            }
+            int index = indexOf(key);
+            return index < 0 ? null : value(index);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return entries != null ? entries.containsKey(key) : indexOf(key) >= 0;
+        }
+
+        @Override
+        public int size() {
+            return entries != null ? entries.size() : keys().length;
+        }
+
+        @Override
+        public V put(String key, V value) {
+            return entries().put(key, value);
+        }
+
+        @Override
+        public V remove(Object key) {
+            return entries().remove(key);
+        }
+
+        @Override
+        public void clear() {
+            entries().clear();
+        }
+
+        @Override
+        public Set<Entry<String, V>> entrySet() {
+            if (entrySet == null) {
+                entrySet = new AbstractSet<Entry<String, V>>() {
+                    @Override
+                    public Iterator<Entry<String, V>> iterator() {
+                        return entries != null ? entries.entrySet().iterator() : new FieldIterator();
+                    }
+
+                    @Override
+                    public int size() {
+                        return FixedKeyMap.this.size();
+                    }
+
+                    @Override
+                    public void clear() {
+                        FixedKeyMap.this.clear();
+                    }
+                };
+            }
+            return entrySet;
+        }
+
+        private int indexOf(Object key) {
+            String[] keys = keys();
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i].equals(key)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private Map<String, V> entries() {
+            if (entries == null) {
+                Map<String, V> copy = new HashMap<>();
+                String[] keys = keys();
+                for (int i = 0; i < keys.length; i++) {
+                    copy.put(keys[i], value(i));
+                }
+                entries = copy;
+            }
+            return entries;
+        }
+
+        /**
+         * Iterates the fields; changes made through it are applied to the copied entries.
+         */
+        private class FieldIterator implements Iterator<Entry<String, V>> {
+            private int next = 0;
+            private String current;
+
+            @Override
+            public boolean hasNext() {
+                return next < keys().length;
+            }
+
+            @Override
+            public Entry<String, V> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                int index = next++;
+                current = keys()[index];
+                return new SimpleEntry<String, V>(current, entries != null ? entries.get(current) : value(index)) {
+                    private static final long serialVersionUID = 1L;
+
+                    @Override
+                    public V setValue(V value) {
+                        put(getKey(), value);
+                        return super.setValue(value);
+                    }
+                };
+            }
+
+            @Override
+            public void remove() {
+                if (current == null) {
+                    throw new IllegalStateException();
+                }
+                entries().remove(current);
+                current = null;
+            }
+        }
+    }
+
+    /**
+     * Source or sink node of a SAST result. Also a map of file, line, column and object, with line and
+     * column as strings. The getters return the values of the map, a line or column that was removed or
+     * is not a number is returned as 0.
+     */
+    public static final class NodeDetails extends FixedKeyMap<String> {
+        private static final String[] KEYS = {"file", "line", "column", "object"};
+
+        private final String file;
+        private final int line;
+        private final int column;
+        private final String object;
+
+        public NodeDetails(String file, int line, int column, String object) {
+            this.file = file;
+            this.line = line;
+            this.column = column;
+            this.object = object;
+        }
+
+        public String getFile() {
+            return current(0);
+        }
+
+        public int getLine() {
+            return isChanged() ? NumberUtils.toInt(current(1)) : line;
+        }
+
+        public int getColumn() {
+            return isChanged() ? NumberUtils.toInt(current(2)) : column;
+        }
+
+        public String getObject() {
+            return current(3);
+        }
+
+        @Override
+        String[] keys() {
+            return KEYS;
+        }
+
+        @Override
+        String value(int index) {
+            switch (index) {
+                case 0: return file;
+                case 1: return Integer.toString(line);
+                case 2: return Integer.toString(column);
+                default: return object;
+            }
+        }
+
+        @Override
+        NodeDetails newCopy() {
+            return new NodeDetails(file, line, column, object);
+        }
+    }
+
+    /**
+     * One occurrence of a SAST issue. Also a map of source, sink and state. The getters return the
+     * values of the map; a source or sink replaced by another type of map and a state that is not a
+     * number are returned as null.
+     */
+    public static final class ResultDetails extends FixedKeyMap<Object> {
+        private static final String[] KEYS = {"sink", "source", "state"};
+
+        private final NodeDetails source;
+        private final NodeDetails sink;
+        private final Integer state;
+
+        public ResultDetails(NodeDetails source, NodeDetails sink, Integer state) {
+            this.source = source;
+            this.sink = sink;
+            this.state = state;
+        }
+
+        public NodeDetails getSource() {
+            Object value = current(1);
+            return value instanceof NodeDetails ? (NodeDetails) value : null;
+        }
+
+        public NodeDetails getSink() {
+            Object value = current(0);
+            return value instanceof NodeDetails ? (NodeDetails) value : null;
+        }
+
+        public Integer getState() {
+            Object value = current(2);
+            if (value == null || value instanceof Integer) {
+                return (Integer) value;
+            }
+            return value instanceof Number ? Integer.valueOf(((Number) value).intValue()) : null;
+        }
+
+        @Override
+        String[] keys() {
+            return KEYS;
+        }
+
+        @Override
+        Object value(int index) {
+            switch (index) {
+                case 0: return sink;
+                case 1: return source;
+                default: return state;
+            }
+        }
+
+        @Override
+        ResultDetails newCopy() {
+            return new ResultDetails((NodeDetails) copyValue(source), (NodeDetails) copyValue(sink), state);
+        }
+    }
+
     @Getter
     @Setter
     @AllArgsConstructor
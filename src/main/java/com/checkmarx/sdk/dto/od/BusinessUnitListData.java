@@ -1,5 +1,6 @@
 package com.checkmarx.sdk.dto.od;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -34,7 +35,7 @@ public class BusinessUnitListData {
     @JsonProperty("smartFilters")
     private List<Object> smartFilters = null;
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("items")
     public List<BusinessUnitListEntry> getItems() {
@@ -98,11 +99,14 @@ public class BusinessUnitListData {
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
-        return this.additionalProperties;
+        return this.additionalProperties != null ? this.additionalProperties : Collections.emptyMap();
     }
 
     @JsonAnySetter
     public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
         this.additionalProperties.put(name, value);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.checkmarx.sdk.dto.od;
 
 import com.fasterxml.jackson.annotation.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -15,7 +16,7 @@ public class OdApplicationCreateData {
     @JsonProperty("baId")
     private String baId;
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("baId")
     public String getBaId() {
@@ -29,11 +30,14 @@ public class OdApplicationCreateData {
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
-        return this.additionalProperties;
+        return this.additionalProperties != null ? this.additionalProperties : Collections.emptyMap();
     }
 
     @JsonAnySetter
     public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
         this.additionalProperties.put(name, value);
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package com.checkmarx.sdk.dto.od;
 
 import com.fasterxml.jackson.annotation.*;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -16,7 +17,7 @@ public class OdApplicationList {
     @JsonProperty("data")
     private OdApplicationListData data;
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("errors")
     public List<Object> getErrors() {
@@ -40,11 +41,14 @@ public class OdApplicationList {
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
-        return this.additionalProperties;
+        return this.additionalProperties != null ? this.additionalProperties : Collections.emptyMap();
     }
 
     @JsonAnySetter
     public void setAdditionalProperty(String name, Object value) {
+        if (this.additionalProperties == null) {
+            this.additionalProperties = new HashMap<>();
+        }
         this.additionalProperties.put(name, value);
     }
 }
\ No newline at end of file
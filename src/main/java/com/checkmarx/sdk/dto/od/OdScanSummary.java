@@ -0,0 +1,29 @@
+package com.checkmarx.sdk.dto.od;
+
+import com.checkmarx.sdk.dto.ast.Summary;
+import com.checkmarx.sdk.dto.cx.CxScanSummary;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Severity counts of a CxGo scan taken from the scan details, without downloading the results.
+ */
+@Getter
+@Setter
+public class OdScanSummary {
+    private Integer scanId;
+    private Integer projectId;
+    private String status;
+    private CxScanSummary sastSummary;
+    private Summary scaSummary;
+    private Double scaRiskScore;
+    private boolean thresholdsEvaluated;
+    private List<String> thresholdViolations = new ArrayList<>();
+
+    public boolean isThresholdsExceeded() {
+        return !thresholdViolations.isEmpty();
+    }
+}
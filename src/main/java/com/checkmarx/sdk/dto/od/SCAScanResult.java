@@ -2,7 +2,7 @@ package com.checkmarx.sdk.dto.od;
 
 import com.fasterxml.jackson.annotation.*;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -44,7 +44,7 @@ public class SCAScanResult {
     private String cwe;
 
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("scan_id")
     public Integer getScanId() {
@@ -218,7 +218,7 @@ public class SCAScanResult {
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
-        return additionalProperties;
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
     }
 
     @JsonAnySetter
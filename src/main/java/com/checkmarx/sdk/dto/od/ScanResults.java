@@ -2,7 +2,7 @@ package com.checkmarx.sdk.dto.od;
 
 import com.fasterxml.jackson.annotation.*;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -16,7 +16,7 @@ public class ScanResults {
     private List<SCAScanResult> sca;
 
     @JsonIgnore
-    private Map<String, Object> additionalProperties = new HashMap<String, Object>();
+    private Map<String, Object> additionalProperties;
 
     @JsonProperty("sast")
     public void setSast(List<SASTScanResult> sast) {
@@ -40,7 +40,7 @@ public class ScanResults {
 
     @JsonAnyGetter
     public Map<String, Object> getAdditionalProperties() {
-        return additionalProperties;
+        return additionalProperties != null ? additionalProperties : Collections.emptyMap();
     }
 
     @JsonAnySetter
@@ -0,0 +1,224 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps track of the last commit that was submitted for scanning per application, project and branch,
+ * and of the base scan and changed files of incremental scans. The state is persisted as JSON under
+ * {@link CxProperties#getStatePath()} so it survives restarts.
+ */
+@Service
+public class BranchScanStateStore {
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(BranchScanStateStore.class);
+    private static final String STATE_FILE = "branch-scan-state.json";
+    private static final String INCREMENTAL_SCANS_FILE = "incremental-scans.json";
+    private static final String KEY_SEPARATOR = "|";
+    /// Incremental scans are only needed while their reports are generated; beyond this the oldest are dropped,
+    /// unless they are on the chain of the latest or last completed scan of a branch
+    private static final int MAX_INCREMENTAL_SCANS = 1000;
+
+    private final CxProperties cxProperties;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private Map<String, BranchScanState> states;
+    private LinkedHashMap<Integer, IncrementalScan> incrementalScans;
+
+    public BranchScanStateStore(CxProperties cxProperties) {
+        this.cxProperties = cxProperties;
+    }
+
+    /**
+     * Returns the last recorded scan state for the branch or null if the branch was never scanned.
+     */
+    public synchronized BranchScanState get(String teamId, String projectName, String branch) {
+        return getStates().get(getKey(teamId, projectName, branch));
+    }
+
+    /**
+     * Records the commit and scan submitted for the branch and persists the state to disk.
+     */
+    public synchronized void put(String teamId, String projectName, String branch, BranchScanState state) {
+        getStates().put(getKey(teamId, projectName, branch), state);
+        persist(STATE_FILE, states);
+    }
+
+    /**
+     * Returns the base scan and changed files of an incremental scan, or null for a full scan.
+     */
+    public synchronized IncrementalScan getIncrementalScan(Integer scanId) {
+        return getIncrementalScans().get(scanId);
+    }
+
+    /**
+     * Records the base scan and changed files of an incremental scan and persists them to disk.
+     */
+    public synchronized void putIncrementalScan(Integer scanId, IncrementalScan incrementalScan) {
+        LinkedHashMap<Integer, IncrementalScan> scans = getIncrementalScans();
+        scans.put(scanId, incrementalScan);
+        if (scans.size() > MAX_INCREMENTAL_SCANS) {
+            Set<Integer> live = getLiveScanIds(scans);
+            Iterator<Integer> eldest = scans.keySet().iterator();
+            while (scans.size() > MAX_INCREMENTAL_SCANS && eldest.hasNext()) {
+                if (!live.contains(eldest.next())) {
+                    eldest.remove();
+                }
+            }
+        }
+        persist(INCREMENTAL_SCANS_FILE, scans);
+    }
+
+    /**
+     * @return the scans on the chains of the latest and the last completed scan of every branch, which
+     * the reports of these scans are merged from
+     */
+    private Set<Integer> getLiveScanIds(Map<Integer, IncrementalScan> scans) {
+        Set<Integer> live = new HashSet<>();
+        for (BranchScanState state : getStates().values()) {
+            for (Integer scanId : Arrays.asList(state.getScanId(), state.getCompletedScanId())) {
+                while (scanId != null && live.add(scanId)) {
+                    IncrementalScan scan = scans.get(scanId);
+                    scanId = scan != null ? scan.getBaseScanId() : null;
+                }
+            }
+        }
+        return live;
+    }
+
+    private Map<String, BranchScanState> getStates() {
+        if (states == null) {
+            states = load(STATE_FILE, new TypeReference<HashMap<String, BranchScanState>>() {});
+            if (states == null) {
+                states = new HashMap<>();
+            }
+        }
+        return states;
+    }
+
+    private LinkedHashMap<Integer, IncrementalScan> getIncrementalScans() {
+        if (incrementalScans == null) {
+            incrementalScans = load(INCREMENTAL_SCANS_FILE, new TypeReference<LinkedHashMap<Integer, IncrementalScan>>() {});
+            if (incrementalScans == null) {
+                incrementalScans = new LinkedHashMap<>();
+            }
+        }
+        return incrementalScans;
+    }
+
+    private <T> T load(String name, TypeReference<T> type) {
+        File file = getStateFile(name).toFile();
+        if (!file.exists()) {
+            return null;
+        }
+        try {
+            return mapper.readValue(file, type);
+        } catch (IOException e) {
+            log.warn("Unable to read branch scan state from {} - {}", file, ExceptionUtils.getRootCauseMessage(e));
+            return null;
+        }
+    }
+
+    private void persist(String name, Object value) {
+        Path stateFile = getStateFile(name);
+        try {
+            Files.createDirectories(stateFile.getParent());
+            Path tmp = Files.createTempFile(stateFile.getParent(), name, ".tmp");
+            mapper.writeValue(tmp.toFile(), value);
+            Files.move(tmp, stateFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to persist branch scan state to {} - {}", stateFile, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private Path getStateFile(String name) {
+        return Paths.get(cxProperties.getStatePath(), name);
+    }
+
+    private static String getKey(String teamId, String projectName, String branch) {
+        return String.join(KEY_SEPARATOR, teamId, projectName, branch);
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class BranchScanState {
+        private String commitId;
+        private Integer scanId;
+        private Integer projectId;
+        private int incrementalScans;
+        /// Last scan of the branch known to have completed, the base of incremental scans
+        private String completedCommitId;
+        private Integer completedScanId;
+        private int completedIncrementalScans;
+
+        public BranchScanState(String commitId, Integer scanId, Integer projectId, int incrementalScans) {
+            this.commitId = commitId;
+            this.scanId = scanId;
+            this.projectId = projectId;
+            this.incrementalScans = incrementalScans;
+        }
+
+        /**
+         * @return the last completed scan as a state of its own, or null if no scan is known to have completed
+         */
+        @JsonIgnore
+        public BranchScanState getCompletedState() {
+            if (completedScanId == null) {
+                return null;
+            }
+            return new BranchScanState(completedCommitId, completedScanId, projectId, completedIncrementalScans);
+        }
+
+        @JsonIgnore
+        public void setCompletedState(BranchScanState completed) {
+            this.completedCommitId = completed != null ? completed.getCommitId() : null;
+            this.completedScanId = completed != null ? completed.getScanId() : null;
+            this.completedIncrementalScans = completed != null ? completed.getIncrementalScans() : 0;
+        }
+    }
+
+    /**
+     * An incremental scan only contains the files changed since its base scan. Its results are the results
+     * of the base scan with the findings in the changed files replaced.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class IncrementalScan {
+        private Integer baseScanId;
+        /// Paths added, modified, renamed or deleted since the base scan, relative to the repository root
+        private List<String> changedFiles;
+        /// Number of incremental scans the base scan was built on, 0 if the base scan is a full scan
+        private int baseIncrementalScans;
+
+        public IncrementalScan(Integer baseScanId, List<String> changedFiles, int baseIncrementalScans) {
+            this.baseScanId = baseScanId;
+            this.changedFiles = changedFiles;
+            this.baseIncrementalScans = baseIncrementalScans;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.ScanResults;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the pushed issues into a single {@link ScanResults}, SAST issues before SCA issues.
+ */
+public class CollectingResultsSink implements ScanResultsSink {
+    private final List<ScanResults.XIssue> sastIssues = new ArrayList<>();
+    private final List<ScanResults.XIssue> scaIssues = new ArrayList<>();
+    private ScanResults results;
+
+    @Override
+    public void onIssue(ScanResults.XIssue issue) {
+        if (issue.getScaDetails() != null) {
+            scaIssues.add(issue);
+        } else {
+            sastIssues.add(issue);
+        }
+    }
+
+    @Override
+    public void onComplete(ScanResults summary) {
+        List<ScanResults.XIssue> xIssues = new ArrayList<>(sastIssues.size() + scaIssues.size());
+        xIssues.addAll(sastIssues);
+        xIssues.addAll(scaIssues);
+        summary.setXIssues(xIssues);
+        results = summary;
+    }
+
+    /**
+     * @return the complete results, or null if the report was not completed
+     */
+    public ScanResults getResults() {
+        return results;
+    }
+}
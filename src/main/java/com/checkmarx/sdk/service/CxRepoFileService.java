@@ -10,105 +10,405 @@ import groovy.lang.GroovyRuntimeException;
 import groovy.util.GroovyScriptEngine;
 import groovy.util.ResourceException;
 import groovy.util.ScriptException;
+import org.codehaus.groovy.runtime.InvokerHelper;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.diff.DiffEntry;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevTree;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.CanonicalTreeParser;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.eclipse.jgit.transport.CredentialsProvider;
 import org.eclipse.jgit.transport.UsernamePasswordCredentialsProvider;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 
+import javax.annotation.PreDestroy;
 import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
-import java.util.UUID;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Service
 public class CxRepoFileService {
     private static final Logger log = org.slf4j.LoggerFactory.getLogger(CxRepoFileService.class);
+    private static final AtomicInteger ARCHIVE_THREAD_COUNT = new AtomicInteger();
+    /// Archive threads when checkmarx.max-concurrent-clones sets no limit
+    private static final int DEFAULT_ARCHIVE_THREADS = 10;
     private final CxProperties cxProperties;
+    private final WorkspaceManager workspaceManager;
+    /// More threads than clone leases would only block in WorkspaceManager.acquire; the rest wait in the queue
+    private final ExecutorService archiveExecutor;
+    private GroovyScriptEngine postCloneScriptEngine;
+    private String postCloneScriptDir;
+    private String postCloneScriptName;
+    private Class<?> postCloneScriptClass;
+    private long postCloneScriptModified;
 
-    public CxRepoFileService(CxProperties cxProperties) {
+    public CxRepoFileService(CxProperties cxProperties, WorkspaceManager workspaceManager) {
         this.cxProperties = cxProperties;
+        this.workspaceManager = workspaceManager;
+        int maxClones = cxProperties.getMaxConcurrentClones() != null ? cxProperties.getMaxConcurrentClones() : 0;
+        int threads = maxClones > 0 ? maxClones : DEFAULT_ARCHIVE_THREADS;
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "cx-archive-" + ARCHIVE_THREAD_COUNT.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        this.archiveExecutor = pool;
     }
 
+    /**
+     * Prepares the repository archive and hands ownership of the zip file to the caller, who is
+     * responsible for deleting it.
+     */
     public String prepareRepoFile(CxScanParams params) throws CheckmarxException {
-        String gitURL = params.getGitUrl();
-        String branch = params.getBranch();
-        String srcPath;
-        File pathFile = null;
-        srcPath = cxProperties.getGitClonePath().concat("/").concat(UUID.randomUUID().toString());
-        pathFile = new File(srcPath);
+        try (RepoArchive repoArchive = prepareRepoArchive(params)) {
+            return repoArchive.retain();
+        }
+    }
+
+    public RepoArchive prepareRepoArchive(CxScanParams params) throws CheckmarxException {
+        return prepareRepoArchive(params, null);
+    }
 
+    /**
+     * Clones the repository branch, runs the post clone script and packages the sources into a zip file.
+     * When a base commit is given and the change set since that commit is below the incremental threshold,
+     * only added and modified files are packaged, and the archive lists every path changed since the base
+     * commit. The clone happens in leased workspace; closing the returned archive deletes the zip file and
+     * releases the workspace.
+     *
+     * @param params scan parameters containing the git url and branch
+     * @param baseCommitId commit of the last scan to diff against, or null for a full archive
+     * @return the archive along with the commit that was cloned
+     * @throws CheckmarxException if the repository cannot be cloned or packaged
+     */
+    public RepoArchive prepareRepoArchive(CxScanParams params, String baseCommitId) throws CheckmarxException {
+        String branch = params.getBranch();
+        WorkspaceManager.Lease lease = workspaceManager.acquire(getWorkspaceKey(params.getGitUrl()));
         try {
-            URI uri = new URI(gitURL);
-            CredentialsProvider credentialsProvider = null;
-            String token = uri.getUserInfo();
-            if(token == null){
-                token = "";
-            }
-            if(token.startsWith("oauth2:")){
-                log.debug("Using gitlab clone");
-                token = token.replace("oauth2:","");
-                gitURL = gitURL.replace(uri.getUserInfo(), "gitlab-ci-token:".concat(token));
-                credentialsProvider = new UsernamePasswordCredentialsProvider("user", token);
-            }
-            else if(token.contains(":")){
-                String[] userDetails = token.split(":");
-                if(userDetails.length == 2) {
-                    log.debug("Using clone with username/password");
-                    credentialsProvider = new UsernamePasswordCredentialsProvider(userDetails[0], userDetails[1]);
-                }
-            }
-            else{
-                credentialsProvider = new UsernamePasswordCredentialsProvider(token, "");
-            }
+            File pathFile = lease.newDirectory();
+            String srcPath = pathFile.getPath();
+            URI uri = new URI(params.getGitUrl());
+            String gitURL = getCloneUrl(params.getGitUrl(), uri);
             log.info("Cloning code locally to {}", pathFile);
-            Git.cloneRepository()
+            String commitId;
+            List<DiffEntry> changes = null;
+            try (Git git = Git.cloneRepository()
                     .setURI(gitURL)
                     .setBranch(branch)
                     .setBranchesToClone(Collections.singleton(branch))
                     .setDirectory(pathFile)
-                    .setCredentialsProvider(credentialsProvider)
-                    .call()
-                    .close();
-            String cxZipFile = cxProperties.getGitClonePath().concat("/").concat("cx.".concat(UUID.randomUUID().toString()).concat(".zip"));
+                    .setCredentialsProvider(getCredentialsProvider(uri))
+                    .call()) {
+                ObjectId head = git.getRepository().resolve(Constants.HEAD);
+                commitId = head != null ? head.name() : null;
+                if (baseCommitId != null && head != null) {
+                    changes = getIncrementalChanges(git, baseCommitId, head);
+                }
+            }
+            File zipFile = lease.newArchive();
+            String cxZipFile = zipFile.getPath();
             String exclusions = null;
             if(params.getFileExclude() != null && !params.getFileExclude().isEmpty()){
                 exclusions = String.join(",",params.getFileExclude());
             }
             runPostCloneScript(params, srcPath);
-            ZipUtils.zipFile(srcPath, cxZipFile, exclusions);
-            try {
-                FileUtils.deleteDirectory(pathFile);
-            } catch (IOException e){
-                log.warn("Error deleting file {} - {}", pathFile, ExceptionUtils.getRootCauseMessage(e));
+            List<String> changedFiles = null;
+            if (changes != null) {
+                List<String> files = new ArrayList<>();
+                changedFiles = new ArrayList<>();
+                for (DiffEntry change : changes) {
+                    if (change.getChangeType() != DiffEntry.ChangeType.DELETE) {
+                        files.add(change.getNewPath());
+                        changedFiles.add(change.getNewPath());
+                    }
+                    if (change.getChangeType() == DiffEntry.ChangeType.DELETE || change.getChangeType() == DiffEntry.ChangeType.RENAME) {
+                        changedFiles.add(change.getOldPath());
+                    }
+                }
+                log.info("Creating incremental archive with {} changed files since commit {}", files.size(), baseCommitId);
+                ZipUtils.zipFiles(srcPath, files, cxZipFile, exclusions);
+            } else {
+                ZipUtils.zipFile(srcPath, cxZipFile, exclusions);
             }
-            return cxZipFile;
+            lease.recordUsage(FileUtils.sizeOfDirectory(pathFile) + zipFile.length());
+            lease.delete(pathFile);
+            return new RepoArchive(cxZipFile, commitId, changedFiles, lease);
         } catch (GitAPIException | IOException | URISyntaxException e)  {
+            lease.close();
             log.error(ExceptionUtils.getRootCauseMessage(e));
             throw new CheckmarxException("Unable to clone Git Url.");
+        } catch (RuntimeException e) {
+            lease.close();
+            throw e;
         }
     }
 
+    /**
+     * Prepares the archive on a background thread so the caller can resolve the project in the meantime.
+     *
+     * @see #prepareRepoArchive(CxScanParams, String)
+     */
+    public CompletableFuture<RepoArchive> prepareRepoArchiveAsync(CxScanParams params, String baseCommitId) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.currentTimeMillis();
+            try {
+                RepoArchive repoArchive = prepareRepoArchive(params, baseCommitId);
+                log.info("Archive {} prepared in {} ms", repoArchive.getPath(), System.currentTimeMillis() - start);
+                return repoArchive;
+            } catch (CheckmarxException e) {
+                throw new CompletionException(e);
+            }
+        }, archiveExecutor);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        archiveExecutor.shutdownNow();
+    }
+
+    /**
+     * Repository identity used to remember clone sizes, without any credentials from the url.
+     */
+    private static String getWorkspaceKey(String gitUrl) {
+        try {
+            URI uri = new URI(gitUrl);
+            return uri.getHost() + uri.getPath();
+        } catch (URISyntaxException e) {
+            return String.valueOf(gitUrl.hashCode());
+        }
+    }
+
+    /**
+     * Returns the changes between the base commit and head, or null if a full archive is required
+     * because the base commit is unknown, nothing but deletions changed or the change set exceeds the
+     * threshold.
+     */
+    private List<DiffEntry> getIncrementalChanges(Git git, String baseCommitId, ObjectId head) {
+        Repository repository = git.getRepository();
+        try (ObjectReader reader = repository.newObjectReader();
+             RevWalk revWalk = new RevWalk(reader)) {
+            ObjectId base = repository.resolve(baseCommitId);
+            if (base == null) {
+                log.info("Commit {} is not part of the cloned branch, creating a full archive", baseCommitId);
+                return null;
+            }
+            RevTree baseTree = revWalk.parseCommit(base).getTree();
+            RevTree headTree = revWalk.parseCommit(head).getTree();
+            CanonicalTreeParser oldTree = new CanonicalTreeParser();
+            oldTree.reset(reader, baseTree);
+            CanonicalTreeParser newTree = new CanonicalTreeParser();
+            newTree.reset(reader, headTree);
+            List<DiffEntry> changes = git.diff().setOldTree(oldTree).setNewTree(newTree).setShowNameAndStatusOnly(true).call();
+            long changedFiles = changes.stream()
+                    .filter(change -> change.getChangeType() != DiffEntry.ChangeType.DELETE)
+                    .count();
+            int totalFiles = countFiles(reader, headTree);
+            if (changedFiles == 0 || totalFiles == 0) {
+                return null;
+            }
+            int changedPercent = (int) (changedFiles * 100 / totalFiles);
+            if (changedPercent > cxProperties.getIncrementalThreshold()) {
+                log.info("{}% of files changed since commit {}, exceeding the incremental threshold of {}%; creating a full archive",
+                        changedPercent, baseCommitId, cxProperties.getIncrementalThreshold());
+                return null;
+            }
+            return changes;
+        } catch (IOException | GitAPIException e) {
+            log.warn("Unable to compute changes since commit {}, creating a full archive - {}", baseCommitId,
+                    ExceptionUtils.getRootCauseMessage(e));
+            return null;
+        }
+    }
+
+    private static int countFiles(ObjectReader reader, RevTree tree) throws IOException {
+        int count = 0;
+        try (TreeWalk treeWalk = new TreeWalk(reader)) {
+            treeWalk.addTree(tree);
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Resolves the commit the remote branch currently points to without cloning the repository.
+     *
+     * @param params scan parameters containing the git url and branch
+     * @return the commit SHA or null if the branch cannot be found on the remote
+     * @throws CheckmarxException if the remote cannot be queried
+     */
+    public String getRemoteBranchHead(CxScanParams params) throws CheckmarxException {
+        String branch = params.getBranch();
+        String branchRef = branch.startsWith(Constants.R_HEADS) ? branch : Constants.R_HEADS.concat(branch);
+        try {
+            URI uri = new URI(params.getGitUrl());
+            Collection<Ref> refs = Git.lsRemoteRepository()
+                    .setRemote(getCloneUrl(params.getGitUrl(), uri))
+                    .setHeads(true)
+                    .setCredentialsProvider(getCredentialsProvider(uri))
+                    .call();
+            for (Ref ref : refs) {
+                if (ref.getName().equals(branchRef) && ref.getObjectId() != null) {
+                    return ref.getObjectId().name();
+                }
+            }
+            log.debug("Branch {} was not found on the remote", branch);
+            return null;
+        } catch (GitAPIException | URISyntaxException e) {
+            log.error(ExceptionUtils.getRootCauseMessage(e));
+            throw new CheckmarxException("Unable to query Git Url.");
+        }
+    }
+
+    private String getCloneUrl(String gitURL, URI uri) {
+        String token = uri.getUserInfo();
+        if(token != null && token.startsWith("oauth2:")){
+            log.debug("Using gitlab clone");
+            token = token.replace("oauth2:","");
+            gitURL = gitURL.replace(uri.getUserInfo(), "gitlab-ci-token:".concat(token));
+        }
+        return gitURL;
+    }
+
+    private CredentialsProvider getCredentialsProvider(URI uri) {
+        CredentialsProvider credentialsProvider = null;
+        String token = uri.getUserInfo();
+        if(token == null){
+            token = "";
+        }
+        if(token.startsWith("oauth2:")){
+            token = token.replace("oauth2:","");
+            credentialsProvider = new UsernamePasswordCredentialsProvider("user", token);
+        }
+        else if(token.contains(":")){
+            String[] userDetails = token.split(":");
+            if(userDetails.length == 2) {
+                log.debug("Using clone with username/password");
+                credentialsProvider = new UsernamePasswordCredentialsProvider(userDetails[0], userDetails[1]);
+            }
+        }
+        else{
+            credentialsProvider = new UsernamePasswordCredentialsProvider(token, "");
+        }
+        return credentialsProvider;
+    }
+
     private void runPostCloneScript(CxScanParams params, String path) {
         if (!ScanUtils.empty(cxProperties.getPostCloneScript())) {
+            long start = System.currentTimeMillis();
             try {
                 Binding binding = new Binding();
                 binding.setProperty("params", params);
                 binding.setVariable("path", path);
-                File script = new File(cxProperties.getPostCloneScript());
-                String scriptName = script.getName();
-                String scriptDir = script.getParent();
-                String[] roots = new String[]{scriptDir};
-                GroovyScriptEngine gse = new GroovyScriptEngine(roots);
-                gse.run(scriptName, binding);
+                InvokerHelper.createScript(getPostCloneScriptClass(), binding).run();
+                log.info("Post Clone Script {} completed in {} ms", cxProperties.getPostCloneScript(),
+                        System.currentTimeMillis() - start);
             } catch (GroovyRuntimeException | IOException | ResourceException | ScriptException e) {
                 log.error("Error occurred while executing Post Clone Script {}", ExceptionUtils.getMessage(e), e);
             }
         }
     }
+
+    /**
+     * Returns the compiled post clone script. The script engine is kept for the lifetime of the
+     * service and the script is only recompiled when the file name or modification time changes.
+     */
+    private synchronized Class<?> getPostCloneScriptClass() throws IOException, ResourceException, ScriptException {
+        File script = new File(cxProperties.getPostCloneScript());
+        String scriptDir = script.getParent();
+        if (postCloneScriptEngine == null || !Objects.equals(scriptDir, postCloneScriptDir)) {
+            postCloneScriptEngine = new GroovyScriptEngine(new String[]{scriptDir});
+            postCloneScriptDir = scriptDir;
+            postCloneScriptClass = null;
+        }
+        long lastModified = script.lastModified();
+        if (postCloneScriptClass == null || lastModified != postCloneScriptModified
+                || !script.getName().equals(postCloneScriptName)) {
+            log.debug("Compiling Post Clone Script {}", script);
+            postCloneScriptClass = postCloneScriptEngine.loadScriptByName(script.getName());
+            postCloneScriptName = script.getName();
+            postCloneScriptModified = lastModified;
+        }
+        return postCloneScriptClass;
+    }
+
+    /**
+     * Zip file prepared for upload and the commit it was created from. Closing the archive deletes
+     * the zip file and releases the workspace it was created in.
+     */
+    public static class RepoArchive implements AutoCloseable {
+        private final String path;
+        private final String commitId;
+        private final List<String> changedFiles;
+        private final WorkspaceManager.Lease lease;
+
+        /**
+         * @param changedFiles paths changed since the base commit of an incremental archive, null for a full archive
+         */
+        public RepoArchive(String path, String commitId, List<String> changedFiles, WorkspaceManager.Lease lease) {
+            this.path = path;
+            this.commitId = commitId;
+            this.changedFiles = changedFiles;
+            this.lease = lease;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        public String getCommitId() {
+            return commitId;
+        }
+
+        public boolean isIncremental() {
+            return changedFiles != null;
+        }
+
+        /**
+         * @return paths added, modified, renamed or deleted since the base commit, or null for a full archive
+         */
+        public List<String> getChangedFiles() {
+            return changedFiles;
+        }
+
+        /**
+         * Keeps the zip file on disk when the archive is closed, under a name the workspace janitor leaves alone.
+         *
+         * @return path of the retained zip file
+         */
+        public String retain() throws CheckmarxException {
+            return lease.retain(new File(path)).getPath();
+        }
+
+        @Override
+        public void close() {
+            lease.close();
+        }
+    }
 }
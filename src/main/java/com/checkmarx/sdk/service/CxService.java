@@ -2,6 +2,7 @@ package com.checkmarx.sdk.service;
 
 import com.checkmarx.sdk.config.Constants;
 import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.config.ScaProperties;
 import com.checkmarx.sdk.dto.Filter;
 import com.checkmarx.sdk.dto.ScanResults;
 import com.checkmarx.sdk.dto.ast.SCAResults;
@@ -12,9 +13,17 @@ import com.checkmarx.sdk.dto.filtering.FilterInput;
 import com.checkmarx.sdk.dto.od.*;
 import com.checkmarx.sdk.exception.CheckmarxException;
 import com.checkmarx.sdk.exception.CheckmarxRuntimeException;
+import com.checkmarx.sdk.utils.IntObjectHashMap;
+import com.checkmarx.sdk.utils.StringPool;
 import com.cx.restclient.ast.dto.sca.report.Finding;
 import com.cx.restclient.ast.dto.sca.report.Package;
 import com.cx.restclient.dto.scansummary.Severity;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.exception.ExceptionUtils;
 import org.json.JSONException;
@@ -23,21 +32,32 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.stereotype.Service;
 import org.springframework.util.FileSystemUtils;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.StreamUtils;
 import org.springframework.util.StringUtils;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import java.io.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
 /**
@@ -55,6 +75,7 @@ public class CxService implements CxClient{
     private static final String CREATE_SCAN = "/v1/scans";
     private static final String SCAN_STATUS = "/v1/scans/{scan_id}/status";
     private static final String SCAN = "/v1/scans/{scan_id}";
+    private static final String CANCEL_SCAN = "/v1/scans/{scan_id}/cancel";
     private static final String SCANS = "/v1/scans";
     private static final String SCAN_RESULTS_ENCODED = "/results/results?criteria=%7B%22criteria%22%3A%5B%7B%22key%22%3A%22projectId%22%2C%22value%22%3A%22{project_id}%22%7D%2C%7B%22key%22%3A%22scanId%22%2C%22value%22%3A%22{scan_id}%22%7D%5D%2C%22pagination%22%3A%7B%22currentPage%22%3A{current_page%2C%22pageSize%22%3A{page_size}%7D%7D";
     private static final String SCAN_RESULTS = "/v1/scans/{scan_id}/results";
@@ -62,27 +83,20 @@ public class CxService implements CxClient{
     private static final String CREATE_APPLICATION = "/applications/applications";
     private static final String CREATE_PROJECT = "/projects/projects";
     private static final String GET_PROJECTS = "/projects/projects?criteria=%7B%22criteria%22%3A%5B%7B%22key%22%3A%22applicationId%22%2C%22value%22%3A%22{app_id}%22%7D%5D%2C%22pagination%22%3A%7B%22currentPage%22%3A{cur_page}%2C%22pageSize%22%3A{page_size}%7D%2C%22sorting%22%3A%5B%5D%7D";
+    private static final String GET_PROJECTS_BY_NAME = "/projects/projects?criteria=%7B%22criteria%22%3A%5B%7B%22key%22%3A%22applicationId%22%2C%22value%22%3A%22{app_id}%22%7D%2C%7B%22key%22%3A%22name%22%2C%22value%22%3A%22{project_name}%22%7D%5D%2C%22pagination%22%3A%7B%22currentPage%22%3A{cur_page}%2C%22pageSize%22%3A{page_size}%7D%2C%22sorting%22%3A%5B%5D%7D";
     private static final String GET_SCAN_STATUS = "/scans/scans?criteria=%7B%22filters%22%3A%5B%5D%2C%22criteria%22%3A%5B%7B%22key%22%3A%22projectId%22%2C%22value%22%3A%22{project_id}%22%7D%5D%2C%22sorting%22%3A%5B%5D%2C%22pagination%22%3A%7B%22currentPage%22%3A{cur_page}%2C%22pageSize%22%3A{page_size}%7D%7D";
     private static final String DEEP_LINK = "/scan/business-unit/%s/application/%s/project/%s/scans/%s";
     private static final String SCA_DEEP_LINK = "/scan/business-unit/%s/application/%s/project/%s";
     private static final String ADDITIONAL_DETAILS_KEY = "results";
-
-    /// CxOD required extra information for API calls not used by the SAST SDK. This
-    /// data structure is used to capture that information as CxService calls are made
-    /// during scan requests. This information is tracked using the current CxOD scan ID
-    /// as the key. The 'scanIdMap' and 'scanProbeMap' have to be constructed using
-    /// different keys because CxService is starting the processes differently; with new
-    /// scans we start with asking CxOD for a scanID, and with requests for previous
-    /// results we are starting with project information and trying to find the last
-    /// scanID.
-    //
-    private static Map<String, CxScanParams> scanIdMap = new HashMap<>();
-    //
-    /// This was used for /scanresults API calls to avoid modifying CxFlow. This
-    /// captures information at key points as CxService API calls are made so
-    /// that it will be required later when needed using the team name as the key.
-    //
-    private static List<CxScanParams> scanProbeMap = new LinkedList<>();
+    /// Files that declare or lock the dependencies scanned by SCA, lower case
+    private static final Set<String> DEPENDENCY_MANIFESTS = new HashSet<>(Arrays.asList(
+            "package.json", "package-lock.json", "npm-shrinkwrap.json", "yarn.lock", "bower.json",
+            "pom.xml", "build.gradle", "build.gradle.kts", "settings.gradle", "gradle.lockfile", "ivy.xml",
+            "requirements.txt", "pipfile", "pipfile.lock", "setup.py", "pyproject.toml", "poetry.lock",
+            "gemfile", "gemfile.lock", "go.mod", "go.sum", "gopkg.lock", "composer.json", "composer.lock",
+            "packages.config", "packages.lock.json", "paket.lock", "cargo.toml", "cargo.lock",
+            "pubspec.yaml", "pubspec.lock", "podfile", "podfile.lock", "cartfile.resolved"));
+    private static final List<String> DEPENDENCY_MANIFEST_EXTENSIONS = Arrays.asList(".csproj", ".vbproj", ".gradle");
 
     private final CxProperties cxProperties;
     private final CxLegacyService cxLegacyService;
@@ -92,13 +106,31 @@ public class CxService implements CxClient{
     private CxRepoFileService cxRepoFileService;
     private final ScanSettingsClient scanSettingsClient;
     private final FilterValidator filterValidator;
+    private final BranchScanStateStore branchScanStateStore;
+    private final ScanTracker scanTracker;
+    private final ScanRegistry scanRegistry;
+    private final ScaProperties scaProperties;
+    private final ScanParamsIndex scanParamsIndex;
+    private final NavigationTreeCache navigationTreeCache;
+    private final ProjectIndexCache projectIndexCache;
+    private final ObjectReader sastResultReader;
+    private final ObjectReader scaResultReader;
+    /// Disk cache of the responses of finished scans, null if disabled
+    private final ScanResponseCache scanResponseCache;
+    /// Recently built reports, null if disabled
+    private final ReportCache reportCache;
+    /// Scans whose tracking was resumed at startup
+    private final Map<Integer, CompletableFuture<ScanStatus>> resumedScans = new ConcurrentHashMap<>();
 
     public CxService(CxAuthClient authClient,
                 CxProperties cxProperties,
                      CxLegacyService cxLegacyService,
                      @Qualifier("cxRestTemplate") RestTemplate restTemplate,
                      ScanSettingsClient scanSettingsClient,
-                     FilterValidator filterValidator) {
+                     FilterValidator filterValidator,
+                     BranchScanStateStore branchScanStateStore,
+                     ScanRegistry scanRegistry,
+                     ScaProperties scaProperties) {
         this.cxProperties = cxProperties;
         this.authClient = authClient;
         this.restTemplate = restTemplate;
@@ -106,6 +138,24 @@ public class CxService implements CxClient{
         this.cxLegacyService = cxLegacyService;
         this.scanSettingsClient = scanSettingsClient;
         this.filterValidator = filterValidator;
+        this.branchScanStateStore = branchScanStateStore;
+        this.scanRegistry = scanRegistry;
+        this.scaProperties = scaProperties;
+        this.scanParamsIndex = new ScanParamsIndex(cxProperties.getScanIndexMaxSize(), cxProperties.getScanIndexExpiry());
+        this.navigationTreeCache = new NavigationTreeCache(cxProperties, this::getNavigationTree);
+        this.projectIndexCache = new ProjectIndexCache(cxProperties,
+                appId -> getProjectPage(GET_PROJECTS, appId).getData().getItems(),
+                (appId, name) -> getProjectPage(GET_PROJECTS_BY_NAME, appId, name).getData().getItems());
+        this.scanTracker = new ScanTracker(cxProperties, this::getScanStatusById, this::getScanStatuses);
+        ObjectMapper mapper = getObjectMapper();
+        this.sastResultReader = mapper.readerFor(SASTScanResult.class);
+        this.scaResultReader = mapper.readerFor(SCAScanResult.class);
+        this.scanResponseCache = cxProperties.getScanCache()
+                ? new ScanResponseCache(cxProperties.getStatePath(), cxProperties.getScanCacheMaxSize() * 1024 * 1024, mapper)
+                : null;
+        this.reportCache = cxProperties.getReportCache()
+                ? new ReportCache(cxProperties.getReportCacheSize(), cxProperties.getReportCacheTtl())
+                : null;
     }
 
     private String createApplication(String appName, String appDesc, String baBuId) {
@@ -185,58 +235,235 @@ public class CxService implements CxClient{
 
     @Override
     public Integer createScan(CxScanParams params, String comment) throws CheckmarxException {
-        //
-        /// Create the project if it doesn't exist.
-        //
+        long start = System.currentTimeMillis();
+        CompletableFuture<CxRepoFileService.RepoArchive> archiveFuture = null;
         try {
             String appID = params.getTeamId();
+            /// Reuse the previous scan if the branch has not moved since it was submitted
+            Integer previousScanId = getScanIdIfBranchUnchanged(params);
+            if (previousScanId != null) {
+                return previousScanId;
+            }
+            long branchCheckDone = System.currentTimeMillis();
+            //
+            /// Clone and zip the sources while the project is resolved
+            //
+            BranchScanStateStore.BranchScanState completedState = null;
+            BranchScanStateStore.BranchScanState baseState = null;
+            if (params.getSourceType() != CxScanParams.Type.FILE) {
+                if (isBranchStateTracked(params)) {
+                    BranchScanStateStore.BranchScanState previousState =
+                            branchScanStateStore.get(appID, params.getProjectName(), params.getBranch());
+                    if (isIncremental(params)) {
+                        completedState = getCompletedState(previousState);
+                        baseState = getIncrementalBase(params, completedState);
+                    } else if (previousState != null) {
+                        completedState = previousState.getCompletedState();
+                    }
+                }
+                archiveFuture = cxRepoFileService.prepareRepoArchiveAsync(params,
+                        baseState != null ? baseState.getCommitId() : null);
+            }
+            //
+            /// Create the project if it doesn't exist.
+            //
             Integer projectID = getProjectId(appID, params.getProjectName());
             if (projectID.equals(UNKNOWN_INT)) {
                 projectID = Integer.parseInt(createCxGoProject(appID, params.getProjectName(), params.getScanPreset()));
+                projectIndexCache.recordProject(appID, params.getProjectName(), projectID);
             }
             params.setProjectId(projectID);
-            /// Create the scan
-            CreateScan scan = CreateScan.builder()
-                    .projectId(params.getProjectId())
-                    .engineTypes(cxProperties.getEngineTypes())
-                    .build();
-            log.info("Sending scan to CxGo for projectID {}.", params.getProjectId());
-
-            HttpHeaders headers = authClient.createAuthHeaders();
-            HttpEntity<CreateScan> httpEntity = new HttpEntity<>(scan, headers);
-            ResponseEntity<CreateScanResponse> createResp = restTemplate.exchange(
-                    cxProperties.getUrl().concat(CREATE_SCAN),
-                    HttpMethod.POST,
-                    httpEntity,
-                    CreateScanResponse.class);
-            CreateScanResponse scanCreate = createResp.getBody();
-
-            assert scanCreate != null;
-
-            Integer scanId = scanCreate.getScan().getId();
-            log.info("CxGo started scan with scanId {}.", scanId);
-            ///The repo to be scanned is uploaded to amazon bucket
-            log.info("CxGo Uploading Scan file {}.", scanId);
-
-            File archive;
-            if (params.getSourceType() == CxScanParams.Type.FILE) {
-                archive = new File(params.getFilePath());
-            } else {
-                archive = new File(cxRepoFileService.prepareRepoFile(params));
+            long projectDone = System.currentTimeMillis();
+            //
+            /// Only request the scan and its storage slot once the archive is ready to upload
+            //
+            CxRepoFileService.RepoArchive repoArchive = archiveFuture != null ? awaitRepoArchive(archiveFuture) : null;
+            long archiveDone = System.currentTimeMillis();
+            try {
+                CreateScan scan = CreateScan.builder()
+                        .projectId(params.getProjectId())
+                        .engineTypes(cxProperties.getEngineTypes())
+                        .build();
+                log.info("Sending scan to CxGo for projectID {}.", params.getProjectId());
+
+                HttpHeaders headers = authClient.createAuthHeaders();
+                HttpEntity<CreateScan> httpEntity = new HttpEntity<>(scan, headers);
+                ResponseEntity<CreateScanResponse> createResp = restTemplate.exchange(
+                        cxProperties.getUrl().concat(CREATE_SCAN),
+                        HttpMethod.POST,
+                        httpEntity,
+                        CreateScanResponse.class);
+                CreateScanResponse scanCreate = createResp.getBody();
+
+                assert scanCreate != null;
+
+                Integer scanId = scanCreate.getScan().getId();
+                log.info("CxGo started scan with scanId {}.", scanId);
+                scanParamsIndex.recordScan(scanId, params);
+                long scanCreated = System.currentTimeMillis();
+                ///The repo to be scanned is uploaded to amazon bucket
+                log.info("CxGo Uploading Scan file {}.", scanId);
+
+                if (repoArchive == null) {
+                    File archive = new File(params.getFilePath());
+                    uploadScanFile(scanCreate.getStorage(), archive);
+                    FileSystemUtils.deleteRecursively(archive);
+                } else {
+                    uploadScanFile(scanCreate.getStorage(), new File(repoArchive.getPath()));
+                    if (repoArchive.isIncremental()) {
+                        /// CxGo scans the partial archive as a whole codebase; reports merge it with its base scan
+                        branchScanStateStore.putIncrementalScan(scanId, new BranchScanStateStore.IncrementalScan(
+                                baseState.getScanId(), repoArchive.getChangedFiles(), baseState.getIncrementalScans()));
+                    }
+                    if (repoArchive.getCommitId() != null && isBranchStateTracked(params)) {
+                        int incrementalScans = repoArchive.isIncremental() ? baseState.getIncrementalScans() + 1 : 0;
+                        BranchScanStateStore.BranchScanState state = new BranchScanStateStore.BranchScanState(
+                                repoArchive.getCommitId(), scanId, projectID, incrementalScans);
+                        state.setCompletedState(completedState);
+                        branchScanStateStore.put(appID, params.getProjectName(), params.getBranch(), state);
+                    }
+                }
+                long uploadDone = System.currentTimeMillis();
+                scanRegistry.register(new ScanRegistry.ScanRecord(scanId, params, scanCreated));
+                /// Tracked right away so the record is released once a poll sees the scan finish, even if
+                /// nobody waits for it; waiters join this tracking
+                waitForScanCompletionAsync(scanId);
+                cancelSupersededScans(scanId, params);
+                log.info("CxGo scan {} submitted in {} ms (branch check {} ms, project {} ms, waiting for archive {} ms, create scan {} ms, upload {} ms)",
+                        scanId, uploadDone - start, branchCheckDone - start, projectDone - branchCheckDone,
+                        archiveDone - projectDone, scanCreated - archiveDone, uploadDone - scanCreated);
+                return scanId;
+            } finally {
+                if (repoArchive != null) {
+                    repoArchive.close();
+                }
             }
-
-            uploadScanFile(scanCreate.getStorage(), archive);
-            FileSystemUtils.deleteRecursively(archive);
-            return scanId;
         }catch (HttpClientErrorException | HttpServerErrorException e){
             log.error("Http Exception: {}", ExceptionUtils.getRootCauseMessage(e), e);
+            if (e instanceof HttpClientErrorException) {
+                /// The project may have been removed since it was indexed
+                projectIndexCache.invalidate(params.getTeamId());
+            }
+            discardRepoArchive(archiveFuture);
             throw new CheckmarxException("Http error occurred");
         }catch (NullPointerException e){
             log.error("Null Exception: {}", ExceptionUtils.getRootCauseMessage(e), e);
+            discardRepoArchive(archiveFuture);
             throw new CheckmarxException("NullPointerException occurred");
+        }catch (CheckmarxException | RuntimeException e){
+            discardRepoArchive(archiveFuture);
+            throw e;
         }
     }
 
+    private CxRepoFileService.RepoArchive awaitRepoArchive(CompletableFuture<CxRepoFileService.RepoArchive> archiveFuture)
+            throws CheckmarxException {
+        try {
+            return archiveFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CheckmarxException("Interrupted while preparing the scan archive");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof CheckmarxException) {
+                throw (CheckmarxException) e.getCause();
+            }
+            log.error("Error preparing the scan archive: {}", ExceptionUtils.getRootCauseMessage(e), e);
+            throw new CheckmarxException("Error preparing the scan archive");
+        }
+    }
+
+    /**
+     * Releases the archive of a submission that failed, once its preparation has finished.
+     */
+    private static void discardRepoArchive(CompletableFuture<CxRepoFileService.RepoArchive> archiveFuture) {
+        if (archiveFuture != null) {
+            archiveFuture.thenAccept(CxRepoFileService.RepoArchive::close);
+        }
+    }
+
+    /**
+     * Compares the remote branch head with the commit of the last scan submitted for the same
+     * project and branch, so unchanged branches are not cloned, uploaded and scanned again.
+     *
+     * @param params scan parameters
+     * @return the previous scan ID if the branch is unchanged, otherwise null
+     */
+    private Integer getScanIdIfBranchUnchanged(CxScanParams params) throws CheckmarxException {
+        if (!cxProperties.getSkipUnchangedBranches() || params.isForceScan() ||
+                params.getSourceType() != CxScanParams.Type.GIT) {
+            return null;
+        }
+        BranchScanStateStore.BranchScanState state = branchScanStateStore.get(params.getTeamId(),
+                params.getProjectName(), params.getBranch());
+        if (state == null || state.getScanId() == null) {
+            return null;
+        }
+        String remoteHead = cxRepoFileService.getRemoteBranchHead(params);
+        if (remoteHead == null || !remoteHead.equals(state.getCommitId())) {
+            return null;
+        }
+        ScanStatus scanStatus = getScanStatusById(state.getScanId());
+        if (ScanStatus.Status.FAILED.equals(scanStatus.getStatus())) {
+            log.info("Previous scan {} for unchanged commit {} failed, submitting a new scan.", state.getScanId(), remoteHead);
+            return null;
+        }
+        log.info("Branch {} is unchanged since scan {} (commit {}), skipping clone and scan.",
+                params.getBranch(), state.getScanId(), remoteHead);
+        params.setProjectId(state.getProjectId());
+        return state.getScanId();
+    }
+
+    private boolean isIncremental(CxScanParams params) {
+        return params.isIncremental() || Boolean.TRUE.equals(cxProperties.getIncremental());
+    }
+
+    private boolean isBranchStateTracked(CxScanParams params) {
+        return cxProperties.getSkipUnchangedBranches() || isIncremental(params);
+    }
+
+    /**
+     * Returns the last scan of the branch that completed: the last submitted scan if it has completed by
+     * now, otherwise the last scan recorded as completed. Failed, cancelled and running scans cannot be the
+     * base of an incremental scan.
+     */
+    private BranchScanStateStore.BranchScanState getCompletedState(BranchScanStateStore.BranchScanState previousState) {
+        if (previousState == null) {
+            return null;
+        }
+        if (previousState.getScanId() != null) {
+            try {
+                if (ScanStatus.Status.COMPLETED.equals(getScanStatusById(previousState.getScanId()).getStatus())) {
+                    return previousState;
+                }
+            } catch (CheckmarxException e) {
+                log.warn("Unable to retrieve the status of scan {}: {}", previousState.getScanId(), e.getMessage());
+            }
+        }
+        return previousState.getCompletedState();
+    }
+
+    /**
+     * Determines the scan an incremental archive should be diffed against. A full archive is requested
+     * (null) when the scan is forced, no scan of the branch is known to have completed, or the configured
+     * number of consecutive incremental scans has been reached.
+     */
+    private BranchScanStateStore.BranchScanState getIncrementalBase(CxScanParams params,
+                                                                    BranchScanStateStore.BranchScanState completedState) {
+        if (params.isForceScan()) {
+            return null;
+        }
+        if (completedState == null || completedState.getCommitId() == null) {
+            log.info("No completed scan of branch {} to diff against, submitting a full scan.", params.getBranch());
+            return null;
+        }
+        if (completedState.getIncrementalScans() >= cxProperties.getIncrementalNumScans()) {
+            log.info("{} incremental scans reached for branch {}, submitting a full scan.",
+                    completedState.getIncrementalScans(), params.getBranch());
+            return null;
+        }
+        return completedState;
+    }
+
     /**
      * Upload Source to pre-signed URL
      *
@@ -273,61 +500,18 @@ public class CxService implements CxClient{
     }
 
     /**
-     * Searches the navigation tree for the Business Unit.
+     * Looks up the Business Unit in the cached navigation tree.
      *
      * @return the Business Unit ID or -1
      */
     @Override
     public String getTeamId(String teamPath) throws CheckmarxException {
-        String []buTokens = teamPath.split(Pattern.quote("\\"));
-        OdNavigationTree navTree = getNavigationTree();
-        LinkedHashMap<String, ArrayList<Object>> navTreeData = (LinkedHashMap) navTree.getAdditionalProperties().get("data");
-        ArrayList<LinkedHashMap<String, LinkedHashMap<String, Object>>> tree = (ArrayList) navTreeData.get("tree");
-        int i = 1;
-        String token = buTokens[i++];
-        for(LinkedHashMap<String, LinkedHashMap<String, Object>> item : tree) {
-            Object o = item.get("id");
-            Integer id = (Integer)o;
-            o = item.get("title");
-            String title = (String)o;
-            title = title.trim();
-            o = item.get("children");
-            ArrayList<Object> children = (ArrayList<Object>) o;
-            if(title.equals(token)) {
-                if(i == buTokens.length) {
-                    CxScanParams csp = getScanProbeByTeam(id.toString());
-                    csp.setTeamName(teamPath);
-                    return id.toString();
-                } else {
-                    return searchTreeChildren(teamPath, buTokens, i, children);
-                }
-            }
-        }
-        return UNKNOWN;
-    }
-
-    private String searchTreeChildren(String teamPath, String []buTokens, int i, ArrayList<Object> children) {
-        String token = buTokens[i++];
-        for(Object item : children) {
-            LinkedHashMap<String, Object> node = (LinkedHashMap<String, Object>)item;
-            Object o = node.get("id");
-            Integer id = (Integer) o;
-            o = node.get("title");
-            String title = (String)o;
-            title = title.trim();
-            o = node.get("children");
-            ArrayList<Object> nodeChildren = (ArrayList<Object>)o;
-            if(title.equals(token)) {
-                if(i == buTokens.length) {
-                    CxScanParams csp = getScanProbeByTeam(id.toString());
-                    csp.setTeamName(teamPath);
-                    return id.toString();
-                } else {
-                    return searchTreeChildren(teamPath, buTokens, i, nodeChildren);
-                }
-            }
+        Integer id = navigationTreeCache.getTeamId(teamPath);
+        if(id == null) {
+            return UNKNOWN;
         }
-        return UNKNOWN;
+        scanParamsIndex.recordTeam(id.toString(), teamPath);
+        return id.toString();
     }
 
     private OdNavigationTree getNavigationTree() throws CheckmarxException {
@@ -349,88 +533,495 @@ public class CxService implements CxClient{
 
     @Override
     public String createTeam(String parentID, String teamName) throws CheckmarxException {
-        return createApplication(teamName, "Generated by CxFlow", parentID);
+        String teamId = createApplication(teamName, "Generated by CxFlow", parentID);
+        navigationTreeCache.invalidate();
+        return teamId;
     }
 
     @Override
     public ScanResults getReportContentByScanId(Integer scanId, FilterConfiguration filter) throws CheckmarxException {
-        ScanResults.ScanResultsBuilder results = ScanResults.builder();
+        if (reportCache != null) {
+            return reportCache.get(scanId, filter, () -> buildReport(scanId, filter));
+        }
+        return buildReport(scanId, filter).getResults();
+    }
+
+    private ReportCache.Report buildReport(Integer scanId, FilterConfiguration filter) throws CheckmarxException {
         Scan scan = getScanDetails(scanId);
-        Integer projectId = scan.getProjectId();
-        Integer buId = scan.getBusinessUnitId();
-        Integer appId = scan.getApplicationId();
+        CollectingResultsSink sink = new CollectingResultsSink();
+        getReportContent(scan, scanId, filter, sink);
+        return new ReportCache.Report(sink.getResults(), scan.getStatus());
+    }
 
-        com.checkmarx.sdk.dto.od.ScanResults resultFromAllEngines = getScanResults(scanId);
+    /**
+     * Pushes the issues of a scan to the sink as they become available instead of building one
+     * {@link ScanResults}. SCA issues are pushed as they are read; SAST findings are grouped by
+     * vulnerability and file, so SAST issues are pushed once all SAST findings were read, or once the
+     * results response was closed when results are streamed or the scan is incremental. When results are
+     * streamed, SCA issues are also held back until the response was closed, so the sink is never called
+     * while the response is open and may block or call CxGo. The sink is called on the calling thread, a
+     * slow sink slows down reading the results unless they are streamed.
+     *
+     * @param scanId CxGo scan ID
+     * @param filter filters applied to the findings
+     * @param sink receives the issues and then the summary
+     */
+    public void getReportContentByScanId(Integer scanId, FilterConfiguration filter, ScanResultsSink sink) throws CheckmarxException {
+        getReportContent(getScanDetails(scanId), scanId, filter, sink);
+    }
+
+    private void getReportContent(Scan scan, Integer scanId, FilterConfiguration filter, ScanResultsSink sink) throws CheckmarxException {
+        List<MergedScan> mergedScans = getMergedScans(scanId);
+        ReportAssembler report = new ReportAssembler(scan, scanId, mergedScans, filter, sink);
+        boolean stream = cxProperties.getStreamScanResults();
+        if (stream) {
+            // No other request may be made while the results response is open, see streamScanResults
+            report.fetchResultItems();
+        }
+        if (stream || mergedScans.size() > 1) {
+            report.deferSastIssues();
+        }
+        if (stream) {
+            report.deferScaIssues();
+        }
+        for (MergedScan mergedScan : mergedScans) {
+            visitScanResults(mergedScan.getScanId(), report.visitorFor(mergedScan));
+        }
+        report.complete();
+    }
 
-        List<ScanResults.XIssue> xIssues = new ArrayList<>();
+    /**
+     * Passes the results of a scan to the visitor, streamed if checkmarx.stream-scan-results is set.
+     */
+    private void visitScanResults(Integer scanId, ScanResultsVisitor visitor) throws CheckmarxException {
+        if (cxProperties.getStreamScanResults()) {
+            streamScanResults(scanId, visitor);
+            return;
+        }
+        com.checkmarx.sdk.dto.od.ScanResults resultFromAllEngines = getScanResults(scanId);
         //SAST
         List<SASTScanResult> mainResultInfos = Optional.ofNullable(resultFromAllEngines)
                 .map(com.checkmarx.sdk.dto.od.ScanResults::getSast)
                 .orElse(null);
-
         if (mainResultInfos != null) {
-            Map<String, OdScanResultItem> additionalResultInfos = getScanResultsPage(projectId, scanId);
-            Map<String, Integer> issuesBySeverity = new HashMap<>();
-            log.debug("SAST finding count before filtering: {}", mainResultInfos.size());
-            log.info("Processing SAST results");
-            mainResultInfos.stream()
-                    .filter(onlySastResultsThatMatchFilter(additionalResultInfos, filter))
-                    .forEach(mainResultInfo -> handleSastIssue(xIssues, mainResultInfo, additionalResultInfos, projectId, scanId, issuesBySeverity));
-            CxScanSummary scanSummary = getCxScanSummary(scan);
-            Map<String, Object> flowSummary = new HashMap<>();
-            flowSummary.put(Constants.SUMMARY_KEY, issuesBySeverity);
-            flowSummary.put(Constants.SCAN_ID_KEY, scanId);
-            results.additionalDetails(flowSummary);
-            results.scanSummary(scanSummary);
+            visitor.startSast();
+            mainResultInfos.forEach(visitor::visitSast);
+            visitor.endSast();
         }
-
         //SCA
         List<SCAScanResult> rawScanResults = Optional.ofNullable(resultFromAllEngines)
                 .map(com.checkmarx.sdk.dto.od.ScanResults::getSca).orElse(null);
         if (rawScanResults != null) {
-            List<Finding> findings = new ArrayList<>();
-            List<Package> packages = new ArrayList<>();
+            visitor.startSca();
+            rawScanResults.forEach(visitor::visitSca);
+        }
+    }
+
+    /**
+     * Returns the scans whose results make up the results of a scan: the scan itself, followed by its base
+     * scans, newest first, if it is an incremental scan. CxGo only scanned the files changed since the base
+     * scan of an incremental scan, so the findings in all other files come from its base scans.
+     *
+     * @throws CheckmarxException if a base scan of the chain is no longer recorded, the merged results would
+     *                            only contain part of the findings
+     */
+    private List<MergedScan> getMergedScans(Integer scanId) throws CheckmarxException {
+        List<MergedScan> mergedScans = new ArrayList<>();
+        Set<String> excludedFiles = new HashSet<>();
+        boolean scaExcluded = false;
+        Set<Integer> seen = new HashSet<>();
+        Integer current = scanId;
+        int expectedIncrementalScans = 0;
+        while (current != null && seen.add(current)) {
+            mergedScans.add(new MergedScan(current, new HashSet<>(excludedFiles), scaExcluded));
+            BranchScanStateStore.IncrementalScan incrementalScan = branchScanStateStore.getIncrementalScan(current);
+            if (incrementalScan == null) {
+                if (expectedIncrementalScans > 0) {
+                    throw new CheckmarxException(String.format("Incremental scan %d cannot be merged with its base scans,"
+                            + " base scan %d is no longer recorded under %s", scanId, current, cxProperties.getStatePath()));
+                }
+                break;
+            }
+            if (incrementalScan.getChangedFiles() != null) {
+                for (String file : incrementalScan.getChangedFiles()) {
+                    excludedFiles.add(normalizePath(file));
+                    scaExcluded |= isDependencyManifest(file);
+                }
+            }
+            expectedIncrementalScans = incrementalScan.getBaseIncrementalScans();
+            current = incrementalScan.getBaseScanId();
+        }
+        if (mergedScans.size() > 1) {
+            log.info("Scan {} is incremental, merging its results with the results of scans {}", scanId,
+                    mergedScans.subList(1, mergedScans.size()).stream().map(MergedScan::getScanId).collect(Collectors.toList()));
+        }
+        return mergedScans;
+    }
+
+    private static String normalizePath(String path) {
+        return path == null ? null : org.apache.commons.lang3.StringUtils.stripStart(path.replace('\\', '/'), "/");
+    }
+
+    /**
+     * @return whether the file declares or locks dependencies, a change to it can change every SCA finding
+     */
+    private static boolean isDependencyManifest(String path) {
+        String normalized = normalizePath(path);
+        String name = normalized.substring(normalized.lastIndexOf('/') + 1).toLowerCase(Locale.ROOT);
+        return DEPENDENCY_MANIFESTS.contains(name)
+                || DEPENDENCY_MANIFEST_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    /**
+     * Leaves out the findings that come from a newer scan: SAST findings with a source or sink in the given
+     * files, and all SCA findings if the newer scan changed a dependency manifest.
+     */
+    private static ScanResultsVisitor excludingNewer(ScanResultsVisitor visitor, MergedScan mergedScan) {
+        Set<String> files = mergedScan.getExcludedFiles();
+        if (files.isEmpty() && !mergedScan.isScaExcluded()) {
+            return visitor;
+        }
+        return new ScanResultsVisitor() {
+            @Override
+            public void startSast() {
+                visitor.startSast();
+            }
+
+            @Override
+            public void visitSast(SASTScanResult result) {
+                if (!isInFiles(result.getSourceNode(), files) && !isInFiles(result.getSinkNode(), files)) {
+                    visitor.visitSast(result);
+                }
+            }
+
+            @Override
+            public void endSast() {
+                visitor.endSast();
+            }
+
+            @Override
+            public void startSca() {
+                visitor.startSca();
+            }
+
+            @Override
+            public void visitSca(SCAScanResult result) {
+                if (!mergedScan.isScaExcluded()) {
+                    visitor.visitSca(result);
+                }
+            }
+        };
+    }
+
+    private static boolean isInFiles(ResultNode node, Set<String> files) {
+        return node != null && files.contains(normalizePath(node.getFilePath()));
+    }
+
+    private FindingCounter countMergedFindings(List<MergedScan> mergedScans) throws CheckmarxException {
+        FindingCounter counter = new FindingCounter();
+        for (MergedScan mergedScan : mergedScans) {
+            visitScanResults(mergedScan.getScanId(), excludingNewer(counter, mergedScan));
+        }
+        return counter;
+    }
+
+    /**
+     * One of the scans whose results make up the results of an incremental scan, with the files whose
+     * findings come from newer scans.
+     */
+    private static class MergedScan {
+        private final Integer scanId;
+        private final Set<String> excludedFiles;
+        /// A newer scan changed a dependency manifest, so its SCA findings replace the findings of this scan
+        private final boolean scaExcluded;
+
+        private MergedScan(Integer scanId, Set<String> excludedFiles, boolean scaExcluded) {
+            this.scanId = scanId;
+            this.excludedFiles = excludedFiles;
+            this.scaExcluded = scaExcluded;
+        }
+
+        private Integer getScanId() {
+            return scanId;
+        }
+
+        private Set<String> getExcludedFiles() {
+            return excludedFiles;
+        }
+
+        private boolean isScaExcluded() {
+            return scaExcluded;
+        }
+    }
+
+    /**
+     * Counts findings by severity, for incremental scans whose scan details only count the findings in
+     * their changed files. SCA findings are counted once per package and vulnerability.
+     */
+    private static class FindingCounter implements ScanResultsVisitor {
+        private final Map<SASTScanResult.Severity, Integer> sastCounts = new EnumMap<>(SASTScanResult.Severity.class);
+        private final Map<Filter.Severity, Integer> scaCounts = new EnumMap<>(Filter.Severity.class);
+        private final Set<String> scaFindings = new HashSet<>();
+
+        @Override
+        public void visitSast(SASTScanResult result) {
+            if (result.getSeverity() != null) {
+                sastCounts.merge(result.getSeverity(), 1, Integer::sum);
+            }
+        }
+
+        @Override
+        public void visitSca(SCAScanResult result) {
+            if (result.getSeverity() != null && scaFindings.add(result.getPackageId() + "|" + result.getCveName())) {
+                try {
+                    scaCounts.merge(Filter.Severity.valueOf(result.getSeverity().getSeverity().toUpperCase(Locale.ROOT)),
+                            1, Integer::sum);
+                } catch (IllegalArgumentException e) {
+                    log.debug("Unknown severity {} of SCA finding {}", result.getSeverity(), result.getId());
+                }
+            }
+        }
+
+        private CxScanSummary getSastSummary() {
+            CxScanSummary scanSummary = new CxScanSummary();
+            scanSummary.setHighSeverity(sastCounts.getOrDefault(SASTScanResult.Severity.HIGH, 0));
+            scanSummary.setMediumSeverity(sastCounts.getOrDefault(SASTScanResult.Severity.MEDIUM, 0));
+            scanSummary.setLowSeverity(sastCounts.getOrDefault(SASTScanResult.Severity.LOW, 0));
+            scanSummary.setInfoSeverity(0); // Does not exist
+            return scanSummary;
+        }
+
+        private Summary getScaSummary() {
+            Summary summary = new Summary();
+            Map<Filter.Severity, Integer> severityMap = new EnumMap<>(Filter.Severity.class);
+            severityMap.put(Filter.Severity.HIGH, scaCounts.getOrDefault(Filter.Severity.HIGH, 0));
+            severityMap.put(Filter.Severity.MEDIUM, scaCounts.getOrDefault(Filter.Severity.MEDIUM, 0));
+            severityMap.put(Filter.Severity.LOW, scaCounts.getOrDefault(Filter.Severity.LOW, 0));
+            severityMap.put(Filter.Severity.INFO, 0);
+            summary.setFindingCounts(severityMap);
+            return summary;
+        }
+    }
+
+    /**
+     * Filters and aggregates the findings of a scan as they are visited and pushes the resulting issues
+     * to the sink. Findings rejected by the filter are not retained. The findings of an incremental scan
+     * are visited along with the findings of its base scans, which also provide the severity counts.
+     */
+    private class ReportAssembler implements ScanResultsVisitor {
+        private final Scan scan;
+        private final Integer scanId;
+        private final Integer projectId;
+        private final List<MergedScan> mergedScans;
+        private final FilterConfiguration filter;
+        private final ScanResultsSink sink;
+        /// Counts the merged findings of an incremental scan, null for a full scan
+        private final FindingCounter counter;
+        /// Base scans to fetch code snippets from, by file
+        private final Map<String, Integer> fileScanIds = new HashMap<>();
+        private Integer resultsScanId;
+        private final Map<ScanResults.XIssue, ScanResults.XIssue> sastIssues = new LinkedHashMap<>();
+        private final Set<String> scaPackageIds = new HashSet<>();
+        /// SCA issues held back until the results response was closed, null if they are pushed as read
+        private List<ScanResults.XIssue> scaIssues;
+        private final StringPool strings = new StringPool();
+        private Map<String, OdScanResultItem> additionalResultInfos;
+        private Predicate<SASTScanResult> sastFilter;
+        private Map<String, Integer> issuesBySeverity;
+        private int sastCount = 0;
+        private boolean sastDone = false;
+        private boolean sastDeferred = false;
+        private List<Finding> findings;
+        private List<Package> packages;
+        private Integer scaScanId;
+        private int scaCount = 0;
+
+        private ReportAssembler(Scan scan, Integer scanId, List<MergedScan> mergedScans, FilterConfiguration filter,
+                                ScanResultsSink sink) {
+            this.scan = scan;
+            this.scanId = scanId;
+            this.projectId = scan.getProjectId();
+            this.mergedScans = mergedScans;
+            this.filter = filter;
+            this.sink = sink;
+            this.counter = mergedScans.size() > 1 ? new FindingCounter() : null;
+        }
+
+        /**
+         * Fetches the result items needed to filter SAST findings ahead of the findings.
+         */
+        private void fetchResultItems() {
+            if (additionalResultInfos != null) {
+                return;
+            }
+            if (mergedScans.size() == 1) {
+                additionalResultInfos = getScanResultsPage(projectId, scanId);
+                return;
+            }
+            additionalResultInfos = new HashMap<>();
+            for (MergedScan mergedScan : mergedScans) {
+                additionalResultInfos.putAll(getScanResultsPage(projectId, mergedScan.getScanId()));
+            }
+        }
+
+        /**
+         * Holds the SAST issues back until {@link #complete()}, since their code snippets are fetched
+         * with a request per file, and merged scans contribute findings to the same issues.
+         */
+        private void deferSastIssues() {
+            sastDeferred = true;
+        }
+
+        /**
+         * Holds the SCA issues back until {@link #complete()}, so the sink is not called while the results
+         * response is open.
+         */
+        private void deferScaIssues() {
+            scaIssues = new ArrayList<>();
+        }
+
+        /**
+         * @return visitor for the results of one of the merged scans
+         */
+        private ScanResultsVisitor visitorFor(MergedScan mergedScan) {
+            resultsScanId = mergedScan.getScanId();
+            return excludingNewer(this, mergedScan);
+        }
+
+        @Override
+        public void startSast() {
+            if (issuesBySeverity == null) {
+                log.info("Processing SAST results");
+                fetchResultItems();
+                sastFilter = onlySastResultsThatMatchFilter(additionalResultInfos, filter);
+                issuesBySeverity = new HashMap<>();
+            }
+        }
+
+        @Override
+        public void visitSast(SASTScanResult result) {
+            startSast();
+            sastCount++;
+            if (counter != null) {
+                counter.visitSast(result);
+                if (!scanId.equals(resultsScanId)) {
+                    fileScanIds.putIfAbsent(result.getSourceNode().getFilePath(), resultsScanId);
+                }
+            }
+            if (sastFilter.test(result)) {
+                handleSastIssue(sastIssues, result, additionalResultInfos, issuesBySeverity, strings);
+            }
+        }
+
+        @Override
+        public void endSast() {
+            if (!sastDeferred) {
+                pushSastIssues();
+            }
+        }
+
+        private void pushSastIssues() {
+            if (sastDone || issuesBySeverity == null) {
+                return;
+            }
+            sastDone = true;
+            log.debug("SAST finding count before filtering: {}", sastCount);
+            additionalResultInfos = null;
+            for (ScanResults.XIssue issue : sastIssues.values()) {
+                Integer fileScanId = fileScanIds.getOrDefault(issue.getFilename(), scanId);
+                for (Map.Entry<Integer, ScanResults.IssueDetails> detail : issue.getDetails().entrySet()) {
+                    detail.getValue().setCodeSnippet(
+                            extractCodeSnippet(projectId, fileScanId, detail.getKey(), issue.getFilename()));
+                }
+                sink.onIssue(issue);
+            }
+            sastIssues.clear();
+        }
 
-            log.info("Processing SCA results");
-            rawScanResults.stream()
-                    .filter(rawScanResult -> !rawScanResult.isIgnored())
-                    .filter(onlyScaResultsThatMatchFilter(filter))
-                    .forEach(rawScanResult -> handleScaIssue(xIssues, findings, packages, rawScanResult));
+        @Override
+        public void startSca() {
+            if (findings == null) {
+                log.info("Processing SCA results");
+                findings = new ArrayList<>();
+                packages = new ArrayList<>();
+            }
+        }
 
-            SCAResults scaResults = new SCAResults();
-            scaResults.setFindings(findings);
-            scaResults.setPackages(packages);
-            if (!rawScanResults.isEmpty()) {
-                scaResults.setScanId(rawScanResults.get(0).getScanId().toString());
+        @Override
+        public void visitSca(SCAScanResult result) {
+            startSca();
+            if (scaCount++ == 0 && result.getScanId() != null) {
+                scaScanId = result.getScanId();
+            }
+            if (counter != null) {
+                counter.visitSca(result);
+            }
+            if (!result.isIgnored() && onlyScaResultsThatMatchFilter(filter).test(result)) {
+                ScanResults.XIssue xIssue = handleScaIssue(scaPackageIds, findings, packages, result, strings);
+                if (xIssue != null && scaIssues != null) {
+                    scaIssues.add(xIssue);
+                } else if (xIssue != null) {
+                    sink.onIssue(xIssue);
+                }
             }
-            Summary summary = getScaScanSummary(scan);
-            scaResults.setSummary(summary);
-            String urlTemplate = cxProperties.getPortalUrl().concat(SCA_DEEP_LINK);
-            String scaDeepLink = String.format(urlTemplate, buId, appId, projectId, scanId);
-            scaResults.setWebReportLink(scaDeepLink);
-            results.scaResults(scaResults);
         }
 
-        results.xIssues(xIssues);
-        results.projectId(projectId.toString());
-        String urlTemplate = cxProperties.getPortalUrl().concat(DEEP_LINK);
-        String deepLink = String.format(urlTemplate, buId, appId, projectId, scanId);
-        results.link(deepLink);
+        /**
+         * Pushes any pending issues and then the summary, which carries everything but the issues.
+         */
+        private void complete() {
+            pushSastIssues();
+            if (scaIssues != null) {
+                scaIssues.forEach(sink::onIssue);
+                scaIssues.clear();
+            }
+            log.info("Replaced {} duplicate strings in the results of scan {}, saving about {} bytes",
+                    strings.getDuplicates(), scanId, strings.getBytesSaved());
+            ScanResults.ScanResultsBuilder results = ScanResults.builder();
+            Integer buId = scan.getBusinessUnitId();
+            Integer appId = scan.getApplicationId();
+
+            if (issuesBySeverity != null) {
+                CxScanSummary scanSummary = counter != null ? counter.getSastSummary() : getCxScanSummary(scan);
+                Map<String, Object> flowSummary = new HashMap<>();
+                flowSummary.put(Constants.SUMMARY_KEY, issuesBySeverity);
+                flowSummary.put(Constants.SCAN_ID_KEY, scanId);
+                results.additionalDetails(flowSummary);
+                results.scanSummary(scanSummary);
+            }
+
+            if (findings != null) {
+                SCAResults scaResults = new SCAResults();
+                scaResults.setFindings(findings);
+                scaResults.setPackages(packages);
+                if (scaScanId != null) {
+                    scaResults.setScanId(scaScanId.toString());
+                }
+                Summary summary = counter != null ? counter.getScaSummary() : getScaScanSummary(scan);
+                scaResults.setSummary(summary);
+                String urlTemplate = cxProperties.getPortalUrl().concat(SCA_DEEP_LINK);
+                String scaDeepLink = String.format(urlTemplate, buId, appId, projectId, scanId);
+                scaResults.setWebReportLink(scaDeepLink);
+                results.scaResults(scaResults);
+            }
+
+            results.projectId(projectId.toString());
+            String urlTemplate = cxProperties.getPortalUrl().concat(DEEP_LINK);
+            String deepLink = String.format(urlTemplate, buId, appId, projectId, scanId);
+            results.link(deepLink);
 
-        return results.build();
+            sink.onComplete(results.build());
+        }
     }
 
     private static Summary getScaScanSummary(Scan scanDetails) {
-        Map<String, Object> scaScanDetails = (Map<String, Object>) scanDetails.getEngines().get("sca");
+        Map<String, Object> scaScanDetails = getEngineDetails(scanDetails, "sca");
         Summary summary = new Summary();
         Map<Filter.Severity, Integer> severityMap = new EnumMap<>(Filter.Severity.class);
         if (scaScanDetails != null) {
-            int high = (int) scaScanDetails.get("high_severities_count");
-            int med = (int) scaScanDetails.get("medium_severities_count");
-            int low = (int) scaScanDetails.get("low_severities_count");
-            severityMap.put(Filter.Severity.HIGH, high);
-            severityMap.put(Filter.Severity.MEDIUM, med);
-            severityMap.put(Filter.Severity.LOW, low);
+            severityMap.put(Filter.Severity.HIGH, getCount(scaScanDetails, "high_severities_count"));
+            severityMap.put(Filter.Severity.MEDIUM, getCount(scaScanDetails, "medium_severities_count"));
+            severityMap.put(Filter.Severity.LOW, getCount(scaScanDetails, "low_severities_count"));
             severityMap.put(Filter.Severity.INFO, 0);
         }
         summary.setFindingCounts(severityMap);
@@ -439,19 +1030,28 @@ public class CxService implements CxClient{
 
     private static CxScanSummary getCxScanSummary(Scan scanDetails) {
         CxScanSummary scanSummary = new CxScanSummary();
-        Map<String, Object> sastScanDetails = (Map<String, Object>) scanDetails.getEngines().get("sast");
+        Map<String, Object> sastScanDetails = getEngineDetails(scanDetails, "sast");
         if (sastScanDetails != null) {
-            int high = (int) sastScanDetails.get("high_severities_count");
-            int med = (int) sastScanDetails.get("medium_severities_count");
-            int low = (int) sastScanDetails.get("low_severities_count");
-            scanSummary.setHighSeverity(high);
-            scanSummary.setMediumSeverity(med);
-            scanSummary.setLowSeverity(low);
+            scanSummary.setHighSeverity(getCount(sastScanDetails, "high_severities_count"));
+            scanSummary.setMediumSeverity(getCount(sastScanDetails, "medium_severities_count"));
+            scanSummary.setLowSeverity(getCount(sastScanDetails, "low_severities_count"));
             scanSummary.setInfoSeverity(0); // Does not exist
         }
         return scanSummary;
     }
 
+    private static Map<String, Object> getEngineDetails(Scan scanDetails, String engine) {
+        if (scanDetails.getEngines() == null) {
+            return null;
+        }
+        return (Map<String, Object>) scanDetails.getEngines().get(engine);
+    }
+
+    private static int getCount(Map<String, Object> engineDetails, String key) {
+        Object count = engineDetails.get(key);
+        return count instanceof Number ? ((Number) count).intValue() : 0;
+    }
+
     private Predicate<SASTScanResult> onlySastResultsThatMatchFilter(Map<String, OdScanResultItem> additionalResultInfos,
                                                                      FilterConfiguration filter) {
         return mainResultInfo -> {
@@ -470,28 +1070,26 @@ public class CxService implements CxClient{
         };
     }
 
-    private void handleSastIssue(List<ScanResults.XIssue> xIssues, SASTScanResult sastResult,
+    private void handleSastIssue(Map<ScanResults.XIssue, ScanResults.XIssue> xIssues, SASTScanResult sastResult,
                                 Map<String, OdScanResultItem> scanResultItems,
-                                int projectId, int scanId, Map<String, Integer> issuesBySeverity){
+                                Map<String, Integer> issuesBySeverity, StringPool strings){
         boolean newIssue = true;
         OdScanResultItem x = scanResultItems.get(sastResult.getId().toString());
         sastResult.setVulnerabilityType(x.getTitle());
         ScanResults.XIssue xIssue = ScanResults.XIssue.builder()
-                .vulnerability(sastResult.getVulnerabilityType())
-                .file(sastResult.getSourceNode().getFilePath())
-                .description(sastResult.getDescription())
-                .cwe(sastResult.getCwe())
-                .language(sastResult.getLanguageName())
-                .severity(sastResult.getSeverity().getSeverity())
+                .vulnerability(strings.get(sastResult.getVulnerabilityType()))
+                .file(strings.get(sastResult.getSourceNode().getFilePath()))
+                .description(strings.get(sastResult.getDescription()))
+                .cwe(strings.get(sastResult.getCwe()))
+                .language(strings.get(sastResult.getLanguageName()))
+                .severity(strings.get(sastResult.getSeverity().getSeverity()))
                 .similarityId(sastResult.getSimilarityId().toString())
                 .build();
 
-        if(xIssues.contains(xIssue)){
-            ScanResults.XIssue tmp = xIssues.get(xIssues.indexOf(xIssue));
-            if(tmp != null){
-                newIssue = false;
-                xIssue = tmp;
-            }
+        ScanResults.XIssue tmp = xIssues.get(xIssue);
+        if(tmp != null){
+            newIssue = false;
+            xIssue = tmp;
         }
         else {
             Integer count = issuesBySeverity.get(sastResult.getSeverity().getSeverity());
@@ -502,13 +1100,13 @@ public class CxService implements CxClient{
                 count ++;
                 issuesBySeverity.put(sastResult.getSeverity().getSeverity(), count);
             }
-            xIssue.setDetails(new HashMap<>());
+            xIssue.setDetails(new IntObjectHashMap<>());
         }
 
-        Map<String, Object> result = new HashMap<>();
-        result.put("source",getNodeData(sastResult.getSourceNode()));
-        result.put("sink",getNodeData(sastResult.getSinkNode()));
-        result.put("state", sastResult.getState());
+        ScanResults.ResultDetails result = new ScanResults.ResultDetails(
+                getNodeData(sastResult.getSourceNode(), strings),
+                getNodeData(sastResult.getSinkNode(), strings),
+                sastResult.getState());
 
         List<Map<String, Object>> resultList = (List<Map<String, Object>>) xIssue.getAdditionalDetails().get(ADDITIONAL_DETAILS_KEY);
         if(resultList == null){  //new list
@@ -516,40 +1114,44 @@ public class CxService implements CxClient{
         }
         resultList.add(result);
 
+        // The code snippet is set when the issue is pushed
         int loc = sastResult.getSourceNode().getLine();
-        String snippet = extractCodeSnippet(projectId, scanId, loc, sastResult.getSourceNode().getFilePath());
-
         ScanResults.IssueDetails details = new ScanResults.IssueDetails();
-        details.setCodeSnippet(snippet);
         if(sastResult.getState().equals(SASTScanResult.State.NOT_EXPLOITABLE.getValue())) {
             details.setFalsePositive(true);
         }
-        xIssue.getDetails().put(loc, details);
+        xIssue.putDetail(loc, details);
         xIssue.getAdditionalDetails().put(ADDITIONAL_DETAILS_KEY, resultList);
         if(newIssue){ //only if the issue is new, add, otherwise references were updated
-            xIssues.add(xIssue);
+            xIssues.put(xIssue, xIssue);
         }
     }
 
-    private void handleScaIssue(List<ScanResults.XIssue> xIssues, List<Finding> findings, List<Package> packages, SCAScanResult scaResult) {
+    /**
+     * @return the new issue, or null if an issue for the package was already reported
+     */
+    private ScanResults.XIssue handleScaIssue(Set<String> packageIds, List<Finding> findings, List<Package> packages,
+                                              SCAScanResult scaResult, StringPool strings) {
         Finding finding = new Finding();
         Package pkg = new Package();
-        pkg.setId(scaResult.getPackageId());
-        pkg.setVersion(scaResult.getFixResolutionText());
-        pkg.setName(scaResult.getPackageId());
-        finding.setCveName(scaResult.getCveName());
-        finding.setDescription(scaResult.getDescription());
+        String packageId = strings.get(scaResult.getPackageId());
+        String fixResolutionText = strings.get(scaResult.getFixResolutionText());
+        pkg.setId(packageId);
+        pkg.setVersion(fixResolutionText);
+        pkg.setName(packageId);
+        finding.setCveName(strings.get(scaResult.getCveName()));
+        finding.setDescription(strings.get(scaResult.getDescription()));
         finding.setId(scaResult.getId());
         finding.setIgnored(scaResult.isIgnored());
-        finding.setPackageId(scaResult.getPackageId());
-        finding.setFixResolutionText(scaResult.getFixResolutionText());
-        finding.setPublishDate(scaResult.getPublishedAt());
+        finding.setPackageId(packageId);
+        finding.setFixResolutionText(fixResolutionText);
+        finding.setPublishDate(strings.get(scaResult.getPublishedAt()));
         finding.setScore(scaResult.getScore());
         finding.setSimilarityId(scaResult.getSimilarityId());
         finding.setSeverity(Severity.valueOf(scaResult.getSeverity().getSeverity().toUpperCase()));
         finding.setSeverity(Severity.valueOf(scaResult.getSeverity().getSeverity().toUpperCase()));
 
-        if(findings.stream().noneMatch(f-> f.getPackageId().equalsIgnoreCase(finding.getPackageId()))){
+        if(packageIds.add(finding.getPackageId().toLowerCase(Locale.ROOT))){
             findings.add(finding);
             packages.add(pkg);
             List<ScanResults.ScaDetails> scaDetails = new ArrayList<>();
@@ -559,24 +1161,21 @@ public class CxService implements CxClient{
                     .vulnerabilityPackage(pkg)
                     .build();
             scaDetails.add(scaDetail);
-            xIssues.add(ScanResults.XIssue.builder()
+            return ScanResults.XIssue.builder()
                     .similarityId(finding.getSimilarityId())
                     .severity(finding.getSeverity().toString())
                     .description(finding.getDescription())
                     .scaDetails(scaDetails)
-                    .build());
+                    .build();
         }
+        return null;
     }
 
 
-    private Map<String, String> getNodeData(ResultNode node) {
+    private ScanResults.NodeDetails getNodeData(ResultNode node, StringPool strings) {
         // Node data: file/line/object
-        Map<String, String> nodeData = new HashMap<>();
-        nodeData.put("file", node.getFileName());
-        nodeData.put("line", node.getLine().toString());
-        nodeData.put("column", node.getColumn().toString());
-        nodeData.put("object", node.getName());
-        return nodeData;
+        return new ScanResults.NodeDetails(strings.get(node.getFileName()), node.getLine(), node.getColumn(),
+                strings.get(node.getName()));
     }
 
     private void updateIssueSummary(CxScanSummary scanSummary, OdScanResultItem vulnerability) {
@@ -612,19 +1211,28 @@ public class CxService implements CxClient{
         if(codeCache.containsKey(filePath)) {
             sourceCode = (String)codeCache.get(filePath);
         } else {
-            HttpEntity<?> httpEntity = new HttpEntity<>(null, authClient.createAuthHeaders());
-            ResponseEntity<OdScanFileResult> response = restTemplate.exchange(
-                    cxProperties.getUrl().concat(SCAN_FILE),
-                    HttpMethod.GET,
-                    httpEntity,
-                    OdScanFileResult.class,
-                    projectId,
-                    scanId,
-                    filePath
-            );
-            OdScanFileResult sfr = response.getBody();
-            assert sfr != null;
-            sourceCode = sfr.getData().getCode();
+            String cacheEntry = ScanResponseCache.getFileEntry(filePath);
+            sourceCode = scanResponseCache != null
+                    ? scanResponseCache.get(scanId, cacheEntry, new TypeReference<String>() {})
+                    : null;
+            if (sourceCode == null) {
+                HttpEntity<?> httpEntity = new HttpEntity<>(null, authClient.createAuthHeaders());
+                ResponseEntity<OdScanFileResult> response = restTemplate.exchange(
+                        cxProperties.getUrl().concat(SCAN_FILE),
+                        HttpMethod.GET,
+                        httpEntity,
+                        OdScanFileResult.class,
+                        projectId,
+                        scanId,
+                        filePath
+                );
+                OdScanFileResult sfr = response.getBody();
+                assert sfr != null;
+                sourceCode = sfr.getData().getCode();
+                if (scanResponseCache != null) {
+                    scanResponseCache.put(scanId, cacheEntry, sourceCode);
+                }
+            }
             codeCache.put(filePath, sourceCode);
         }
         //
@@ -650,19 +1258,24 @@ public class CxService implements CxClient{
 
     @Override
     public Integer getProjectId(String ownerId, String name) {
-        log.debug("Retrieving OD Project List");
-        OdProjectList appList = getProjectPage(ownerId);
-        for(OdProjectListDataItem item : appList.getData().getItems()) {
-            if(item.getName().equals(name)) {
-                CxScanParams csp = getScanProbeByTeam(ownerId);
-                csp.setProjectId(item.getId());
-                return item.getId();
-            }
+        log.debug("Retrieving OD Project");
+        Integer projectId = projectIndexCache.getProjectId(ownerId, name);
+        if(projectId == null) {
+            return UNKNOWN_INT;
         }
-        return UNKNOWN_INT;
+        scanParamsIndex.recordProject(ownerId, projectId, name);
+        return projectId;
+    }
+
+    public ProjectIndexCache getProjectIndexCache() {
+        return projectIndexCache;
+    }
+
+    public NavigationTreeCache getNavigationTreeCache() {
+        return navigationTreeCache;
     }
 
-    private OdProjectList getProjectPage(String ownerId) {
+    private OdProjectList getProjectPage(String url, Object... uriVariables) {
         HttpEntity<Void> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
         OdProjectList appList = new OdProjectList();
         boolean morePages = true;
@@ -672,14 +1285,15 @@ public class CxService implements CxClient{
         long rcvItemCnt = 0;
         while(morePages) {
             // Fetch the current page
+            Object[] pageVariables = Arrays.copyOf(uriVariables, uriVariables.length + 2);
+            pageVariables[uriVariables.length] = curPage;
+            pageVariables[uriVariables.length + 1] = pageSize;
             ResponseEntity<OdProjectList> response = restTemplate.exchange(
-                    cxProperties.getUrl().concat(GET_PROJECTS),
+                    cxProperties.getUrl().concat(url),
                     HttpMethod.GET,
                     httpEntity,
                     OdProjectList.class,
-                    ownerId,
-                    curPage,
-                    pageSize);
+                    pageVariables);
             // Are there more results
             OdProjectList curList = response.getBody();
             if(curPage == 0) totalCount = curList.getData().getTotalCount();
@@ -699,33 +1313,101 @@ public class CxService implements CxClient{
         return appList;
     }
 
+    /**
+     * Waits for the scan without blocking the caller. All scans are polled from one shared scheduler.
+     *
+     * @param scanId CxGo scan ID
+     * @return future completed with the terminal (COMPLETED or FAILED) status of the scan, or
+     * exceptionally with a {@link CheckmarxException} if the scan timed out or its status could not be read.
+     * The scan timeout is counted from the submission of the scan.
+     */
+    public CompletableFuture<ScanStatus> waitForScanCompletionAsync(Integer scanId) {
+        CxScanParams csp = scanParamsIndex.getByScan(scanId);
+        ScanRegistry.ScanRecord record = scanRegistry.get(scanId);
+        long submittedAt = record != null && record.getSubmittedAt() > 0 ? record.getSubmittedAt() : System.currentTimeMillis();
+        CompletableFuture<ScanStatus> future = scanTracker.track(scanId, csp != null ? csp.getProjectId() : null, submittedAt);
+        future.whenComplete((status, e) -> {
+            // Scans still in flight when tracking stops are resumed after a restart
+            if (!scanTracker.isStopped()) {
+                scanRegistry.complete(scanId);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * @return futures of the scans whose tracking was resumed at startup by scan ID, completed like the
+     * futures of {@link #waitForScanCompletionAsync(Integer)}
+     */
+    public Map<Integer, CompletableFuture<ScanStatus>> getResumedScans() {
+        return Collections.unmodifiableMap(resumedScans);
+    }
+
+    /**
+     * Resumes tracking of the scans that were in flight when the application stopped, so they are not
+     * resubmitted. Scans older than the scan timeout are abandoned. The outcome of resumed scans is logged,
+     * see {@link #getResumedScans()} to act on it.
+     */
+    public void resumeScans() {
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(cxProperties.getScanTimeout());
+        int resumed = 0;
+        for (ScanRegistry.ScanRecord record : scanRegistry.getInFlight()) {
+            if (record.getSubmittedAt() < cutoff) {
+                log.info("Abandoning scan {} of project {}, submitted before the scan timeout", record.getScanId(), record.getProjectName());
+                scanRegistry.complete(record.getScanId());
+                continue;
+            }
+            Integer scanId = record.getScanId();
+            scanParamsIndex.recordScan(scanId, record.toScanParams());
+            CompletableFuture<ScanStatus> future = waitForScanCompletionAsync(scanId);
+            resumedScans.put(scanId, future);
+            future.whenComplete((status, e) -> {
+                if (e != null) {
+                    log.warn("Resumed scan {} did not complete: {}", scanId, ExceptionUtils.getRootCauseMessage(e));
+                } else {
+                    log.info("Resumed scan {} finished with status {}", scanId, status.getStatus());
+                }
+            });
+            resumed++;
+        }
+        if (resumed > 0) {
+            log.info("Resumed tracking of {} in-flight CxGo scans", resumed);
+        }
+    }
+
     @Override
     public void waitForScanCompletion(Integer scanId) throws CheckmarxException {
-        ScanStatus scanStatus = getScanStatusById(scanId);
-        ScanStatus.Status status = scanStatus.getStatus();
-        long timer = 0;
+        ScanStatus scanStatus;
         try {
-            while(!status.equals(ScanStatus.Status.COMPLETED) &&
-                    !status.equals(ScanStatus.Status.FAILED)) {
-                Thread.sleep(cxProperties.getScanPolling());
-                scanStatus = getScanStatusById(scanId);
-                status = scanStatus.getStatus();
-                timer += cxProperties.getScanPolling();
-                log.info("scanId: {}, status: {}, progress: {}", scanId, scanStatus.getStatus(), scanStatus.getProgress());
-                if(timer >= (cxProperties.getScanTimeout() * 60000)) {
-                    log.error("Scan timeout exceeded.  {} minutes", cxProperties.getScanTimeout());
-                    throw new CheckmarxException("Timeout exceeded during scan");
-                }
-            }
+            scanStatus = waitForScanCompletionAsync(scanId).get();
         } catch(InterruptedException e) {
-            log.error("Thread sleep error waiting for scan status!");
+            log.error("Thread interrupted waiting for scan status!");
+            Thread.currentThread().interrupt();
+            throw new CheckmarxException("Interrupted while waiting for scan");
+        } catch(ExecutionException e) {
+            if (e.getCause() instanceof CheckmarxException) {
+                throw (CheckmarxException) e.getCause();
+            }
+            log.error("Error waiting for scan {}: {}", scanId, ExceptionUtils.getRootCauseMessage(e), e);
+            throw new CheckmarxException("Error occurred while waiting for scan");
         }
-        log.info("scanId: {}, status: {}, progress: {}", scanId, scanStatus.getStatus(), scanStatus.getProgress());
-        if (status.equals(ScanStatus.Status.FAILED)) {
+        if (ScanStatus.Status.FAILED.equals(scanStatus.getStatus())) {
             throw new CheckmarxException("Scan was cancelled or failed");
         }
     }
 
+    @PostConstruct
+    public void init() {
+        scanTracker.start();
+        resumeScans();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scanTracker.shutdown();
+        navigationTreeCache.shutdown();
+    }
+
     private OdScanList getScanStatusPage(Integer projectId) {
         HttpEntity<Void> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
         OdScanList appList = new OdScanList();
@@ -789,9 +1471,9 @@ public class CxService implements CxClient{
      * scan record is available in memory so that CxService can correctly look up the values.
      */
     private void setupScanIdMap(Integer scanID, Integer projectID) {
-        CxScanParams csp = getScanProbeByProject(projectID.toString());
+        CxScanParams csp = scanParamsIndex.getByProject(projectID);
         if(csp != null) {
-            scanIdMap.put(scanID.toString(), csp);
+            scanParamsIndex.recordScan(scanID, csp);
         }
     }
 
@@ -807,41 +1489,6 @@ public class CxService implements CxClient{
         return UNKNOWN_INT;
     }
 
-    /**
-     * Examines the current scan scanProbeMap and returns the record matching the teamID
-     * 'if' it exists.
-     *
-     * @return the CxScanParams record
-     */
-    private CxScanParams getScanProbeByTeam(String teamID) {
-        // First check it if it exists
-        for(CxScanParams csp: scanProbeMap) {
-            if(csp.getTeamId().equals(teamID)) {
-                return csp;
-            }
-        }
-        // If it doesn't exist then create it
-        CxScanParams csp = new CxScanParams();
-        csp.setTeamId(teamID);
-        scanProbeMap.add(csp);
-        return csp;
-    }
-
-    /**
-     * Examines the current scan scanProbeMap and returns the record matching the teamID
-     * 'if' it exists.
-     *
-     * @return the CxScanParams record
-     */
-    private CxScanParams getScanProbeByProject(String projectID) {
-        for(CxScanParams csp: scanProbeMap) {
-            if(csp.getProjectId().toString().equals(projectID)) {
-                return csp;
-            }
-        }
-        return null;
-    }
-
     //
     /// I think things below here should be removed the public interface. They are specific
     /// Cx SAST.
@@ -874,6 +1521,13 @@ public class CxService implements CxClient{
     }
 
     private Scan getScanDetails(Integer scanId) throws CheckmarxException {
+        if (scanResponseCache != null) {
+            Scan cached = scanResponseCache.getScan(scanId);
+            if (cached != null) {
+                log.debug("Using cached scan with id {}", scanId);
+                return cached;
+            }
+        }
         HttpEntity<Void> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
         try {
             log.debug("Retrieving scan with id {}", scanId);
@@ -884,8 +1538,12 @@ public class CxService implements CxClient{
                     Scan.class,
                     scanId);
 
-            return Optional.ofNullable(response.getBody())
+            Scan scan = Optional.ofNullable(response.getBody())
                     .orElseThrow(() -> new CheckmarxRuntimeException("Scan details response body is missing."));
+            if (scanResponseCache != null) {
+                scanResponseCache.putScan(scan);
+            }
+            return scan;
         } catch(HttpStatusCodeException e) {
             log.error("Error occurred while retrieving the scan with id {}", scanId);
             log.error(ExceptionUtils.getStackTrace(e));
@@ -910,7 +1568,39 @@ public class CxService implements CxClient{
         }
     }
 
+    /**
+     * Retrieves the status of all scans with a single scan list request.
+     *
+     * @return scan status keyed by scan ID; scans with a status that cannot be mapped are left out
+     */
+    public Map<Integer, ScanStatus> getScanStatuses() throws CheckmarxException {
+        Map<Integer, ScanStatus> statuses = new HashMap<>();
+        for (Scan scan : getScans()) {
+            if (scan.getId() == null || scan.getStatus() == null) {
+                continue;
+            }
+            try {
+                ScanStatus scanStatus = new ScanStatus();
+                scanStatus.setId(scan.getId().toString());
+                scanStatus.setStatus(ScanStatus.Status.valueOf(scan.getStatus().toUpperCase(Locale.ROOT)));
+                scanStatus.setProgress(scan.getProgress());
+                statuses.put(scan.getId(), scanStatus);
+            } catch (IllegalArgumentException e) {
+                log.debug("Unknown status {} for scan {}", scan.getStatus(), scan.getId());
+            }
+        }
+        return statuses;
+    }
+
     private com.checkmarx.sdk.dto.od.ScanResults getScanResults(Integer scanId) throws CheckmarxException {
+        if (scanResponseCache != null) {
+            com.checkmarx.sdk.dto.od.ScanResults cached = scanResponseCache.get(scanId, ScanResponseCache.RESULTS,
+                    new TypeReference<com.checkmarx.sdk.dto.od.ScanResults>() {});
+            if (cached != null) {
+                log.info("Using cached Scan Results for Scan Id {} ", scanId);
+                return cached;
+            }
+        }
         HttpEntity<?> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
 
         try {
@@ -924,6 +1614,9 @@ public class CxService implements CxClient{
                     //String.class,
                     scanId);
             //return null;
+            if (scanResponseCache != null && response.getBody() != null) {
+                scanResponseCache.put(scanId, ScanResponseCache.RESULTS, response.getBody());
+            }
             return response.getBody();
         } catch(HttpStatusCodeException e) {
             log.error("Error occurred while retrieving the scan results for id {}.", scanId);
@@ -932,7 +1625,117 @@ public class CxService implements CxClient{
         }
     }
 
+    /**
+     * Decodes the results of a scan incrementally and passes each finding to the visitor as soon as it
+     * is read, so the complete results are never held in memory. The visitor is called while the results
+     * response holds a pooled connection, so it must not make CxGo requests: with several concurrent
+     * streams they can wait for a connection forever, and the open response can time out meanwhile.
+     */
+    public void streamScanResults(Integer scanId, ScanResultsVisitor visitor) throws CheckmarxException {
+        HttpHeaders headers = authClient.createAuthHeaders();
+        RequestCallback requestCallback = request -> {
+            request.getHeaders().putAll(headers);
+            request.getHeaders().setAccept(Collections.singletonList(MediaType.APPLICATION_JSON));
+        };
+        try {
+            if (scanResponseCache != null && streamCachedScanResults(scanId, requestCallback, visitor)) {
+                return;
+            }
+            log.info("Streaming Scan Results for Scan Id {} ", scanId);
+            restTemplate.execute(
+                    cxProperties.getUrl().concat(SCAN_RESULTS),
+                    HttpMethod.GET,
+                    requestCallback,
+                    response -> {
+                        parseScanResults(response.getBody(), visitor);
+                        return null;
+                    },
+                    scanId);
+        } catch(HttpStatusCodeException e) {
+            log.error("Error occurred while retrieving the scan results for id {}.", scanId);
+            log.error(ExceptionUtils.getStackTrace(e));
+            throw new CheckmarxException("Error occurred while retrieving the scan results for id ".concat(Integer.toString(scanId)));
+        } catch(RestClientException | IOException e) {
+            log.error("Error occurred while reading the scan results for id {}: {}", scanId, ExceptionUtils.getRootCauseMessage(e));
+            throw new CheckmarxException("Error occurred while reading the scan results for id ".concat(Integer.toString(scanId)));
+        }
+    }
+
+    /**
+     * Streams the results of a finished scan from the scan cache, downloading them into the cache first.
+     *
+     * @return false if the scan is not finished or the results could not be cached
+     */
+    private boolean streamCachedScanResults(Integer scanId, RequestCallback requestCallback, ScanResultsVisitor visitor) throws IOException {
+        InputStream cached = scanResponseCache.open(scanId, ScanResponseCache.RESULTS);
+        if (cached == null && scanResponseCache.contains(scanId)) {
+            log.info("Downloading Scan Results for Scan Id {} into the scan cache", scanId);
+            restTemplate.execute(
+                    cxProperties.getUrl().concat(SCAN_RESULTS),
+                    HttpMethod.GET,
+                    requestCallback,
+                    response -> scanResponseCache.put(scanId, ScanResponseCache.RESULTS,
+                            out -> StreamUtils.copy(response.getBody(), out)),
+                    scanId);
+            cached = scanResponseCache.open(scanId, ScanResponseCache.RESULTS);
+        }
+        if (cached == null) {
+            return false;
+        }
+        log.info("Streaming cached Scan Results for Scan Id {} ", scanId);
+        try (InputStream results = cached) {
+            parseScanResults(results, visitor);
+        }
+        return true;
+    }
+
+    private void parseScanResults(InputStream body, ScanResultsVisitor visitor) throws IOException {
+        try (JsonParser parser = sastResultReader.getFactory().createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(parser, "Expected scan results object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.getCurrentName();
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY && "sast".equals(field)) {
+                    visitor.startSast();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        visitor.visitSast(sastResultReader.readValue(parser));
+                    }
+                    visitor.endSast();
+                } else if (token == JsonToken.START_ARRAY && "sca".equals(field)) {
+                    visitor.startSca();
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        visitor.visitSca(scaResultReader.readValue(parser));
+                    }
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    /**
+     * Uses the mapper of the rest template so streamed results are decoded like regular responses. Readers
+     * for the finding types are created once from it so each finding skips the deserializer lookup.
+     */
+    private ObjectMapper getObjectMapper() {
+        for (HttpMessageConverter<?> converter : restTemplate.getMessageConverters()) {
+            if (converter instanceof MappingJackson2HttpMessageConverter) {
+                return ((MappingJackson2HttpMessageConverter) converter).getObjectMapper();
+            }
+        }
+        return new ObjectMapper();
+    }
+
     private Map<String, OdScanResultItem> getScanResultsPage(Integer projectId, Integer scanId) {
+        if (scanResponseCache != null) {
+            Map<String, OdScanResultItem> cached = scanResponseCache.get(scanId, ScanResponseCache.RESULT_ITEMS,
+                    new TypeReference<HashMap<String, OdScanResultItem>>() {});
+            if (cached != null) {
+                return cached;
+            }
+        }
         HttpEntity<?> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
         OdScanResults appList = new OdScanResults();
         boolean morePages = true;
@@ -954,6 +1757,7 @@ public class CxService implements CxClient{
             );
             // Are there more results
             OdScanResults curList = response.getBody();
+            if(curList == null || curList.getData() == null) break;
             if(curPage == 0) totalCount = curList.getData().getTotalCount();
             rcvItemCnt += curList.getData().getItems().size();
             // There are more items, add them to the list
@@ -968,8 +1772,11 @@ public class CxService implements CxClient{
                 morePages = false;
             }
         }
+        if(appList.getData() == null) {
+            return new HashMap<>();
+        }
         //create a map lookup based on the id
-        return appList.getData()
+        Map<String, OdScanResultItem> items = appList.getData()
                         .getItems()
                         .stream()
                         .collect(Collectors.toMap(
@@ -977,6 +1784,10 @@ public class CxService implements CxClient{
                                 Function.identity(),
                                 (thisItem, nextItem) -> nextItem)
                         );
+        if (scanResponseCache != null) {
+            scanResponseCache.put(scanId, ScanResponseCache.RESULT_ITEMS, items);
+        }
+        return items;
     }
 
     @Override
@@ -1206,7 +2017,85 @@ public class CxService implements CxClient{
 
     @Override
     public CxScanSummary getScanSummaryByScanId(Integer scanId) throws CheckmarxException {
-        return null;
+        List<MergedScan> mergedScans = getMergedScans(scanId);
+        if (mergedScans.size() > 1) {
+            return countMergedFindings(mergedScans).getSastSummary();
+        }
+        return getCxScanSummary(getScanDetails(scanId));
+    }
+
+    /**
+     * Retrieves the SAST and SCA severity counts of a scan with a single scan details call, without
+     * downloading the results. Use it for break-build decisions that only need the counts. The counts of
+     * an incremental scan are the exception: they are counted from its results merged with the results
+     * of its base scans, and the highest SCA risk score of these scans is reported.
+     *
+     * @param scanId CxGo scan ID
+     * @param evaluateThresholds whether to check the SCA counts and risk score against the configured
+     *                           sca.thresholds-severity and sca.thresholds-score
+     * @return the scan summary with the threshold violations, if evaluated
+     */
+    public OdScanSummary getScanSummaryByScanId(Integer scanId, boolean evaluateThresholds) throws CheckmarxException {
+        Scan scan = getScanDetails(scanId);
+        List<MergedScan> mergedScans = getMergedScans(scanId);
+        FindingCounter counter = mergedScans.size() > 1 ? countMergedFindings(mergedScans) : null;
+        OdScanSummary summary = new OdScanSummary();
+        summary.setScanId(scanId);
+        summary.setProjectId(scan.getProjectId());
+        summary.setStatus(scan.getStatus());
+        summary.setSastSummary(counter != null ? counter.getSastSummary() : getCxScanSummary(scan));
+        Map<String, Object> scaScanDetails = getEngineDetails(scan, "sca");
+        if (scaScanDetails != null) {
+            summary.setScaSummary(counter != null ? counter.getScaSummary() : getScaScanSummary(scan));
+            Double riskScore = getScaRiskScore(scan);
+            for (MergedScan mergedScan : mergedScans.subList(1, mergedScans.size())) {
+                if (mergedScan.isScaExcluded()) {
+                    break;
+                }
+                Double baseRiskScore = getScaRiskScore(getScanDetails(mergedScan.getScanId()));
+                if (riskScore == null || (baseRiskScore != null && baseRiskScore > riskScore)) {
+                    riskScore = baseRiskScore;
+                }
+            }
+            summary.setScaRiskScore(riskScore);
+        }
+        if (evaluateThresholds) {
+            evaluateScaThresholds(summary);
+        }
+        return summary;
+    }
+
+    private static Double getScaRiskScore(Scan scan) {
+        Map<String, Object> scaScanDetails = getEngineDetails(scan, "sca");
+        Object riskScore = scaScanDetails != null ? scaScanDetails.get("risk_score") : null;
+        return riskScore instanceof Number ? ((Number) riskScore).doubleValue() : null;
+    }
+
+    private void evaluateScaThresholds(OdScanSummary summary) {
+        summary.setThresholdsEvaluated(true);
+        if (summary.getScaSummary() == null) {
+            return;
+        }
+        Map<Severity, Integer> thresholds = scaProperties.getThresholdsSeverity();
+        if (thresholds != null) {
+            for (Map.Entry<Severity, Integer> threshold : thresholds.entrySet()) {
+                Integer count;
+                try {
+                    count = summary.getScaSummary().getFindingCounts().get(Filter.Severity.valueOf(threshold.getKey().name()));
+                } catch (IllegalArgumentException e) {
+                    continue;
+                }
+                if (count != null && threshold.getValue() != null && count > threshold.getValue()) {
+                    summary.getThresholdViolations().add(String.format("SCA %s findings: %d, threshold: %d",
+                            threshold.getKey(), count, threshold.getValue()));
+                }
+            }
+        }
+        Double scoreThreshold = scaProperties.getThresholdsScore();
+        if (scoreThreshold != null && summary.getScaRiskScore() != null && summary.getScaRiskScore() > scoreThreshold) {
+            summary.getThresholdViolations().add(String.format("SCA risk score: %.1f, threshold: %.1f",
+                    summary.getScaRiskScore(), scoreThreshold));
+        }
     }
 
     @Override
@@ -1230,7 +2119,80 @@ public class CxService implements CxClient{
 
     @Override
     public void cancelScan(Integer scanId) throws CheckmarxException {
+        cancelScan(scanId, "Scan was cancelled");
+    }
+
+    private void cancelScan(Integer scanId, String reason) throws CheckmarxException {
+        HttpEntity<?> httpEntity = new HttpEntity<>(authClient.createAuthHeaders());
+        try {
+            log.info("Cancelling CxGo scan {}", scanId);
+            restTemplate.exchange(
+                    cxProperties.getUrl().concat(CANCEL_SCAN),
+                    HttpMethod.POST,
+                    httpEntity,
+                    String.class,
+                    scanId);
+        } catch(HttpStatusCodeException e) {
+            log.error("Error occurred while cancelling scan {}.", scanId);
+            log.error(ExceptionUtils.getStackTrace(e));
+            if (isRejectedForScan(e)) {
+                /// CxGo refuses to cancel scans that finished or no longer exist, they are not in flight anymore
+                scanRegistry.complete(scanId);
+            }
+            throw new CheckmarxException("Error occurred while cancelling scan ".concat(Integer.toString(scanId)));
+        }
+        scanRegistry.complete(scanId);
+        scanTracker.cancel(scanId, new CheckmarxException(reason));
+    }
+
+    /**
+     * Cancels the in-flight scans of the same project and branch that were submitted before the new scan,
+     * only the result of the latest commit matters.
+     */
+    private void cancelSupersededScans(Integer scanId, CxScanParams params) {
+        if (!cxProperties.getCancelSupersededScans() || params.getBranch() == null || params.getProjectId() == null) {
+            return;
+        }
+        for (ScanRegistry.ScanRecord record : scanRegistry.getInFlight()) {
+            if (record.getScanId().equals(scanId) || !params.getProjectId().equals(record.getProjectId())
+                    || !params.getBranch().equals(record.getBranch())) {
+                continue;
+            }
+            if (isFinished(record.getScanId())) {
+                log.debug("Superseded scan {} already finished", record.getScanId());
+                scanRegistry.complete(record.getScanId());
+                continue;
+            }
+            try {
+                log.info("Scan {} of project {} branch {} is superseded by scan {}", record.getScanId(),
+                        params.getProjectName(), params.getBranch(), scanId);
+                cancelScan(record.getScanId(), "Scan was superseded by scan ".concat(scanId.toString()));
+            } catch (CheckmarxException e) {
+                log.warn("Unable to cancel superseded scan {}: {}", record.getScanId(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return whether CxGo reports the scan as COMPLETED or FAILED; false if the status cannot be retrieved
+     */
+    private boolean isFinished(Integer scanId) {
+        try {
+            ScanStatus scanStatus = getScanStatusById(scanId);
+            return scanStatus != null && (ScanStatus.Status.COMPLETED.equals(scanStatus.getStatus())
+                    || ScanStatus.Status.FAILED.equals(scanStatus.getStatus()));
+        } catch (CheckmarxException e) {
+            return false;
+        }
+    }
 
+    /**
+     * @return whether the error is about the scan itself rather than the credentials or the request rate
+     */
+    private static boolean isRejectedForScan(HttpStatusCodeException e) {
+        HttpStatus status = e.getStatusCode();
+        return status.is4xxClientError() && status != HttpStatus.UNAUTHORIZED && status != HttpStatus.FORBIDDEN
+                && status != HttpStatus.TOO_MANY_REQUESTS;
     }
 
     @Override
@@ -0,0 +1,113 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.Constants;
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Prepares CxGo lookups on startup so the first scan does not pay for them: logs in, then loads the
+ * navigation tree and the project indexes of the configured teams in parallel. The warm-up is bounded
+ * by {@link CxProperties#getWarmUpTimeout()}; whatever is not ready by then is loaded on first use.
+ */
+@Component
+@ConditionalOnProperty(prefix = "checkmarx", name = "warm-up", havingValue = "true")
+@Slf4j
+public class CxWarmUpRunner implements ApplicationRunner {
+    private static final int MAX_THREADS = 4;
+
+    private final CxProperties cxProperties;
+    private final CxAuthClient authClient;
+    private final CxService cxService;
+
+    public CxWarmUpRunner(CxProperties cxProperties, CxAuthClient authClient, CxService cxService) {
+        this.cxProperties = cxProperties;
+        this.authClient = authClient;
+        this.cxService = cxService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.currentTimeMillis();
+        long deadline = start + TimeUnit.SECONDS.toMillis(cxProperties.getWarmUpTimeout());
+        try {
+            /// Log in once before fanning out so the parallel lookups share the token
+            authClient.createAuthHeaders();
+        } catch (RuntimeException e) {
+            log.warn("CxGo warm-up skipped, login failed: {}", ExceptionUtils.getRootCauseMessage(e));
+            return;
+        }
+        Set<String> teams = new LinkedHashSet<>();
+        if (!StringUtils.isEmpty(cxProperties.getTeam())) {
+            teams.add(cxProperties.getTeam());
+        }
+        if (cxProperties.getWarmUpTeams() != null) {
+            teams.addAll(cxProperties.getWarmUpTeams());
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(MAX_THREADS, teams.size())), r -> {
+            Thread thread = new Thread(r, "cx-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            /// Every team lookup reads the tree, so it is loaded once before the teams fan out
+            CompletableFuture<Void> tree = CompletableFuture.runAsync(this::warmUpNavigationTree, executor);
+            List<CompletableFuture<Void>> tasks = new ArrayList<>();
+            tasks.add(tree);
+            for (String team : teams) {
+                tasks.add(tree.thenRunAsync(() -> warmUpTeam(team), executor));
+            }
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture<?>[0]))
+                    .get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            log.info("CxGo warm-up of {} teams completed in {} ms", teams.size(), System.currentTimeMillis() - start);
+        } catch (TimeoutException e) {
+            log.warn("CxGo warm-up did not complete within {} seconds, continuing startup", cxProperties.getWarmUpTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("CxGo warm-up failed: {}", ExceptionUtils.getRootCauseMessage(e));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void warmUpNavigationTree() {
+        try {
+            int teams = cxService.getNavigationTreeCache().load();
+            log.debug("CxGo warm-up: loaded the navigation tree with {} Business Units", teams);
+        } catch (CheckmarxException | RuntimeException e) {
+            log.warn("CxGo warm-up of the navigation tree failed: {}", ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private void warmUpTeam(String team) {
+        try {
+            String teamId = cxService.getTeamId(team);
+            if (Constants.UNKNOWN.equals(teamId)) {
+                log.warn("CxGo warm-up: team {} not found", team);
+                return;
+            }
+            int projects = cxService.getProjectIndexCache().refresh(teamId);
+            log.debug("CxGo warm-up: indexed {} projects of team {}", projects, team);
+        } catch (CheckmarxException | RuntimeException e) {
+            log.warn("CxGo warm-up of team {} failed: {}", team, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+}
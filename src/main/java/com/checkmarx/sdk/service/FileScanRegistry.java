@@ -0,0 +1,144 @@
+package com.checkmarx.sdk.service;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.slf4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Scan registry persisted as an append-only log of JSON lines, one per registered or completed scan.
+ * The log is replayed on startup and rewritten with only the in-flight scans once completed entries
+ * dominate it.
+ */
+public class FileScanRegistry implements ScanRegistry {
+    private static final Logger log = org.slf4j.LoggerFactory.getLogger(FileScanRegistry.class);
+    private static final String LOG_FILE = "scan-registry.log";
+    private static final int COMPACT_THRESHOLD = 100;
+
+    private final Path logFile;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final Map<Integer, ScanRecord> records = new LinkedHashMap<>();
+    private int logEntries = 0;
+
+    public FileScanRegistry(String statePath) {
+        this.logFile = Paths.get(statePath, LOG_FILE);
+        load();
+    }
+
+    @Override
+    public synchronized void register(ScanRecord record) {
+        records.put(record.getScanId(), record);
+        append(new Entry(Entry.Op.REGISTER, record.getScanId(), record));
+    }
+
+    @Override
+    public synchronized void complete(Integer scanId) {
+        if (records.remove(scanId) != null) {
+            append(new Entry(Entry.Op.COMPLETE, scanId, null));
+        }
+    }
+
+    @Override
+    public synchronized ScanRecord get(Integer scanId) {
+        return records.get(scanId);
+    }
+
+    @Override
+    public synchronized Collection<ScanRecord> getInFlight() {
+        return new ArrayList<>(records.values());
+    }
+
+    private void load() {
+        if (!Files.exists(logFile)) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(logFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) {
+                    continue;
+                }
+                logEntries++;
+                try {
+                    Entry entry = mapper.readValue(line, Entry.class);
+                    if (entry.getOp() == Entry.Op.REGISTER && entry.getRecord() != null) {
+                        records.put(entry.getScanId(), entry.getRecord());
+                    } else if (entry.getOp() == Entry.Op.COMPLETE) {
+                        records.remove(entry.getScanId());
+                    }
+                } catch (IOException e) {
+                    /// A crash while appending can leave a partial last line
+                    log.warn("Skipping unreadable scan registry entry in {} - {}", logFile, ExceptionUtils.getRootCauseMessage(e));
+                }
+            }
+            log.info("Loaded {} in-flight scans from {}", records.size(), logFile);
+        } catch (IOException e) {
+            log.warn("Unable to read scan registry {} - {}", logFile, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private void append(Entry entry) {
+        try {
+            Files.createDirectories(logFile.getParent());
+            byte[] line = mapper.writeValueAsString(entry).concat("\n").getBytes(StandardCharsets.UTF_8);
+            Files.write(logFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.DSYNC);
+            logEntries++;
+            if (logEntries > COMPACT_THRESHOLD && logEntries > 2 * records.size()) {
+                compact();
+            }
+        } catch (IOException e) {
+            log.warn("Unable to write scan registry {} - {}", logFile, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private void compact() throws IOException {
+        Path tmp = Files.createTempFile(logFile.getParent(), LOG_FILE, ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            for (ScanRecord record : records.values()) {
+                writer.write(mapper.writeValueAsString(new Entry(Entry.Op.REGISTER, record.getScanId(), record)));
+                writer.newLine();
+            }
+        }
+        Files.move(tmp, logFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Compacted scan registry {} from {} to {} entries", logFile, logEntries, records.size());
+        logEntries = records.size();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Entry {
+        private Op op;
+        private Integer scanId;
+        private ScanRecord record;
+
+        public Entry(Op op, Integer scanId, ScanRecord record) {
+            this.op = op;
+            this.scanId = scanId;
+            this.record = record;
+        }
+
+        public enum Op {
+            REGISTER,
+            COMPLETE
+        }
+    }
+}
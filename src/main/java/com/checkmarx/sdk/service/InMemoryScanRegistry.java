@@ -0,0 +1,33 @@
+package com.checkmarx.sdk.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Scan registry that only lives as long as the application; in-flight scans are forgotten on restart.
+ */
+public class InMemoryScanRegistry implements ScanRegistry {
+    private final Map<Integer, ScanRecord> records = new ConcurrentHashMap<>();
+
+    @Override
+    public void register(ScanRecord record) {
+        records.put(record.getScanId(), record);
+    }
+
+    @Override
+    public void complete(Integer scanId) {
+        records.remove(scanId);
+    }
+
+    @Override
+    public ScanRecord get(Integer scanId) {
+        return records.get(scanId);
+    }
+
+    @Override
+    public Collection<ScanRecord> getInFlight() {
+        return new ArrayList<>(records.values());
+    }
+}
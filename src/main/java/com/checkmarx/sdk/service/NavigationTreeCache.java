@@ -0,0 +1,252 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.OdNavigationTree;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the CxGo navigation tree as an index of full Business Unit paths to IDs. A cached tree older
+ * than the TTL is still served while it is refreshed in the background; beyond twice the TTL, or after
+ * {@link #invalidate()}, the next lookup waits for a fresh tree. A path missing from the cached tree
+ * triggers one refresh, in case the Business Unit was created since. The index can be snapshotted to
+ * disk so a restart does not wait for the tree.
+ */
+@Slf4j
+public class NavigationTreeCache {
+    private static final String SNAPSHOT_FILE = "navigation-tree.json";
+    private static final String PATH_SEPARATOR = "\\";
+    /// Minimum age of the cached tree before a lookup miss forces a refresh
+    private static final long MIN_MISS_REFRESH_MILLIS = 10000;
+
+    private final CxProperties cxProperties;
+    private final NavigationTreeFetcher fetcher;
+    private final ObjectMapper mapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final ExecutorService refresher;
+    private final AtomicBoolean refreshing = new AtomicBoolean(false);
+    private volatile Snapshot snapshot;
+    private boolean snapshotRead = false;
+
+    public NavigationTreeCache(CxProperties cxProperties, NavigationTreeFetcher fetcher) {
+        this.cxProperties = cxProperties;
+        this.fetcher = fetcher;
+        this.refresher = Executors.newSingleThreadExecutor(r -> {
+            Thread thread = new Thread(r, "cx-navigation-tree");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @param teamPath Business Unit path, e.g. \CxServer\SP\Company
+     * @return the Business Unit ID or null if the path is not in the navigation tree
+     */
+    public Integer getTeamId(String teamPath) throws CheckmarxException {
+        String key = getKey(teamPath);
+        if (key == null) {
+            return null;
+        }
+        Snapshot current = getSnapshot();
+        Integer id = current.getTeamIds().get(key);
+        if (id == null && current.getAge() > MIN_MISS_REFRESH_MILLIS) {
+            log.debug("Business Unit {} not found in the cached navigation tree, refreshing", teamPath);
+            current = refresh(current);
+            id = current.getTeamIds().get(key);
+        }
+        return id;
+    }
+
+    /**
+     * Drops the cached tree so the next lookup fetches it again, e.g. after a Business Unit was created.
+     */
+    public synchronized void invalidate() {
+        snapshot = null;
+        snapshotRead = true;
+    }
+
+    /**
+     * Loads the tree unless a fresh enough snapshot is cached.
+     *
+     * @return number of Business Units in the tree
+     */
+    public int load() throws CheckmarxException {
+        return getSnapshot().getTeamIds().size();
+    }
+
+    public void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private Snapshot getSnapshot() throws CheckmarxException {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = readSnapshot();
+        }
+        long ttl = TimeUnit.SECONDS.toMillis(cxProperties.getNavigationTreeTtl());
+        if (current == null || current.getAge() > 2 * ttl) {
+            return refresh(current);
+        }
+        if (current.getAge() > ttl) {
+            refreshInBackground();
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refresh(Snapshot seen) throws CheckmarxException {
+        if (snapshot != null && snapshot != seen) {
+            /// Another thread refreshed the tree while this one was waiting
+            return snapshot;
+        }
+        long start = System.currentTimeMillis();
+        Snapshot fresh = new Snapshot(index(fetcher.getNavigationTree()), System.currentTimeMillis());
+        log.debug("Indexed {} Business Units from the navigation tree in {} ms", fresh.getTeamIds().size(), fresh.getLoadedAt() - start);
+        snapshot = fresh;
+        writeSnapshot(fresh);
+        return fresh;
+    }
+
+    private void refreshInBackground() {
+        if (!refreshing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            refresher.submit(() -> {
+                try {
+                    refresh(snapshot);
+                } catch (CheckmarxException | RuntimeException e) {
+                    log.warn("Background refresh of the navigation tree failed: {}", ExceptionUtils.getRootCauseMessage(e));
+                } finally {
+                    refreshing.set(false);
+                }
+            });
+        } catch (RuntimeException e) {
+            refreshing.set(false);
+            throw e;
+        }
+    }
+
+    /**
+     * Business Unit paths start with a separator, the first token is skipped as it is when walking the tree.
+     */
+    private static String getKey(String teamPath) {
+        String[] tokens = teamPath.split(Pattern.quote(PATH_SEPARATOR));
+        if (tokens.length < 2) {
+            return null;
+        }
+        return String.join(PATH_SEPARATOR, Arrays.asList(tokens).subList(1, tokens.length));
+    }
+
+    static Map<String, Integer> index(OdNavigationTree tree) {
+        Map<String, Integer> teamIds = new HashMap<>();
+        Object data = tree != null ? tree.getAdditionalProperties().get("data") : null;
+        if (data instanceof Map) {
+            addNodes(teamIds, null, ((Map<?, ?>) data).get("tree"));
+        }
+        return teamIds;
+    }
+
+    /**
+     * Adds the nodes depth first; when siblings share a title the first one wins.
+     */
+    private static void addNodes(Map<String, Integer> teamIds, String parentPath, Object nodes) {
+        if (!(nodes instanceof List)) {
+            return;
+        }
+        for (Object item : (List<?>) nodes) {
+            if (!(item instanceof Map)) {
+                continue;
+            }
+            Map<?, ?> node = (Map<?, ?>) item;
+            Object id = node.get("id");
+            Object title = node.get("title");
+            if (!(id instanceof Number) || !(title instanceof String)) {
+                continue;
+            }
+            String path = parentPath == null ? ((String) title).trim() : parentPath + PATH_SEPARATOR + ((String) title).trim();
+            teamIds.putIfAbsent(path, ((Number) id).intValue());
+            addNodes(teamIds, path, node.get("children"));
+        }
+    }
+
+    private synchronized Snapshot readSnapshot() {
+        if (snapshotRead || !cxProperties.getNavigationTreeSnapshot()) {
+            return snapshot;
+        }
+        snapshotRead = true;
+        Path file = getSnapshotFile();
+        if (Files.exists(file)) {
+            try {
+                snapshot = mapper.readValue(file.toFile(), Snapshot.class);
+                log.info("Loaded {} Business Units from navigation tree snapshot {}", snapshot.getTeamIds().size(), file);
+            } catch (IOException e) {
+                log.warn("Unable to read navigation tree snapshot {} - {}", file, ExceptionUtils.getRootCauseMessage(e));
+            }
+        }
+        return snapshot;
+    }
+
+    private void writeSnapshot(Snapshot fresh) {
+        if (!cxProperties.getNavigationTreeSnapshot()) {
+            return;
+        }
+        Path file = getSnapshotFile();
+        try {
+            Files.createDirectories(file.getParent());
+            Path tmp = Files.createTempFile(file.getParent(), SNAPSHOT_FILE, ".tmp");
+            mapper.writeValue(tmp.toFile(), fresh);
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Unable to write navigation tree snapshot {} - {}", file, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    private Path getSnapshotFile() {
+        return Paths.get(cxProperties.getStatePath(), SNAPSHOT_FILE);
+    }
+
+    @FunctionalInterface
+    public interface NavigationTreeFetcher {
+        OdNavigationTree getNavigationTree() throws CheckmarxException;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    public static class Snapshot {
+        private Map<String, Integer> teamIds = new HashMap<>();
+        private long loadedAt;
+
+        public Snapshot(Map<String, Integer> teamIds, long loadedAt) {
+            this.teamIds = teamIds;
+            this.loadedAt = loadedAt;
+        }
+
+        @JsonIgnore
+        public long getAge() {
+            return System.currentTimeMillis() - loadedAt;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.OdProjectListDataItem;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caches the project name to ID index of each CxGo application. A name missing from the index is looked
+ * up on the server, either by name when name lookups are enabled and the server honours the criteria,
+ * or by listing all projects of the application, which rebuilds the index.
+ */
+@Slf4j
+public class ProjectIndexCache {
+    private static final long MAX_APPLICATIONS = 1000;
+
+    private final CxProperties cxProperties;
+    private final ProjectLister lister;
+    private final ProjectFinder finder;
+    private final Cache<String, ProjectIndex> indexes;
+    private final AtomicBoolean nameCriteriaSupported = new AtomicBoolean(true);
+    private final AtomicLong lookupsAvoided = new AtomicLong();
+    private final AtomicLong remoteLookups = new AtomicLong();
+
+    public ProjectIndexCache(CxProperties cxProperties, ProjectLister lister, ProjectFinder finder) {
+        this(cxProperties, lister, finder, Ticker.systemTicker());
+    }
+
+    /**
+     * @param ticker time source of the index expiry
+     */
+    ProjectIndexCache(CxProperties cxProperties, ProjectLister lister, ProjectFinder finder, Ticker ticker) {
+        this.cxProperties = cxProperties;
+        this.lister = lister;
+        this.finder = finder;
+        this.indexes = CacheBuilder.newBuilder()
+                .maximumSize(MAX_APPLICATIONS)
+                .expireAfterWrite(cxProperties.getProjectIndexTtl(), TimeUnit.SECONDS)
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * @param appId CxGo application ID
+     * @param name project name
+     * @return the project ID or null if the application has no project with the name
+     */
+    public Integer getProjectId(String appId, String name) {
+        ProjectIndex index = getIndex(appId);
+        Integer projectId = index.ids.get(name);
+        if (projectId != null) {
+            lookupsAvoided.incrementAndGet();
+            log.debug("Project {} of application {} found in the project index", name, appId);
+            return projectId;
+        }
+        if (isNameLookup(name)) {
+            remoteLookups.incrementAndGet();
+            List<OdProjectListDataItem> items = finder.findProjects(appId, name);
+            boolean allMatch = true;
+            for (OdProjectListDataItem item : items) {
+                if (name.equals(item.getName())) {
+                    index.ids.put(name, item.getId());
+                    return item.getId();
+                }
+                allMatch = false;
+            }
+            if (allMatch) {
+                return null;
+            }
+            log.info("Project lookup by name returned other projects, listing all projects instead");
+            nameCriteriaSupported.set(false);
+        }
+        return load(appId).ids.get(name);
+    }
+
+    /**
+     * Lists all projects of the application and replaces its index.
+     *
+     * @return number of projects indexed
+     */
+    public int refresh(String appId) {
+        return load(appId).ids.size();
+    }
+
+    private ProjectIndex load(String appId) {
+        remoteLookups.incrementAndGet();
+        ProjectIndex fresh = new ProjectIndex();
+        for (OdProjectListDataItem item : lister.listProjects(appId)) {
+            fresh.ids.putIfAbsent(item.getName(), item.getId());
+        }
+        indexes.put(appId, fresh);
+        return fresh;
+    }
+
+    /**
+     * Adds a project that was just created to the index of its application.
+     */
+    public void recordProject(String appId, String name, Integer projectId) {
+        getIndex(appId).ids.put(name, projectId);
+    }
+
+    /**
+     * Drops the index of the application, e.g. after the server rejected one of its project IDs.
+     */
+    public void invalidate(String appId) {
+        if (appId != null) {
+            indexes.invalidate(appId);
+        }
+    }
+
+    public long getLookupsAvoided() {
+        return lookupsAvoided.get();
+    }
+
+    public long getRemoteLookups() {
+        return remoteLookups.get();
+    }
+
+    private ProjectIndex getIndex(String appId) {
+        try {
+            return indexes.get(appId, ProjectIndex::new);
+        } catch (ExecutionException e) {
+            /// ProjectIndex::new cannot throw
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The name is embedded in JSON criteria, names that would need escaping are listed instead.
+     */
+    private boolean isNameLookup(String name) {
+        return cxProperties.getProjectNameLookup() && nameCriteriaSupported.get()
+                && name.indexOf('"') < 0 && name.indexOf('\\') < 0;
+    }
+
+    private static class ProjectIndex {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    }
+
+    @FunctionalInterface
+    public interface ProjectLister {
+        List<OdProjectListDataItem> listProjects(String appId);
+    }
+
+    @FunctionalInterface
+    public interface ProjectFinder {
+        List<OdProjectListDataItem> findProjects(String appId, String name);
+    }
+}
@@ -0,0 +1,162 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.Filter;
+import com.checkmarx.sdk.dto.ScanResults;
+import com.checkmarx.sdk.dto.filtering.EngineFilterConfiguration;
+import com.checkmarx.sdk.dto.filtering.FilterConfiguration;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import com.google.common.base.Throwables;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps recently built reports, keyed by scan ID and the normalized filters they were built with.
+ * Simple filters match regardless of their order and case, as they do in {@link FilterValidator};
+ * scripted filters only match when the same script instance is passed. Concurrent requests for the
+ * same report wait for a single build. Callers always get their own copy of the cached report.
+ * Reports of scans that have not finished are built on every request, their results can still change.
+ */
+public class ReportCache {
+    private final Cache<Key, Report> reports;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong builds = new AtomicLong();
+
+    /**
+     * @param maximumSize maximum number of reports kept
+     * @param expireAfterWrite seconds after which a report is built again
+     */
+    public ReportCache(long maximumSize, long expireAfterWrite) {
+        this.reports = CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite, TimeUnit.SECONDS)
+                .build();
+    }
+
+    /**
+     * @return a copy of the cached report, built by the builder if it is not cached
+     */
+    public ScanResults get(Integer scanId, FilterConfiguration filter, ReportBuilder builder) throws CheckmarxException {
+        Key key = new Key(scanId, filter);
+        boolean[] built = {false};
+        try {
+            Report report = reports.get(key, () -> {
+                built[0] = true;
+                return builder.build();
+            });
+            (built[0] ? builds : hits).incrementAndGet();
+            if (built[0] && !report.isFinished()) {
+                reports.asMap().remove(key, report);
+            }
+            return report.getResults().copy();
+        } catch (ExecutionException e) {
+            Throwables.throwIfInstanceOf(e.getCause(), CheckmarxException.class);
+            throw new CheckmarxException("Error occurred while building the report for scan ".concat(String.valueOf(scanId)));
+        } catch (UncheckedExecutionException e) {
+            Throwables.throwIfUnchecked(e.getCause());
+            throw e;
+        }
+    }
+
+    /**
+     * Drops the cached reports of the scan.
+     */
+    public void invalidate(Integer scanId) {
+        reports.asMap().keySet().removeIf(key -> Objects.equals(key.scanId, scanId));
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getBuilds() {
+        return builds.get();
+    }
+
+    @FunctionalInterface
+    public interface ReportBuilder {
+        Report build() throws CheckmarxException;
+    }
+
+    /**
+     * A report with the status of its scan at the time it was built.
+     */
+    public static final class Report {
+        private final ScanResults results;
+        private final boolean finished;
+
+        public Report(ScanResults results, String scanStatus) {
+            this.results = results;
+            this.finished = ScanResponseCache.isFinished(scanStatus);
+        }
+
+        public ScanResults getResults() {
+            return results;
+        }
+
+        public boolean isFinished() {
+            return finished;
+        }
+    }
+
+    private static final class Key {
+        private final Integer scanId;
+        private final Set<String> sastFilters;
+        private final Set<String> scaFilters;
+        private final Object sastScript;
+        private final Object scaScript;
+
+        private Key(Integer scanId, FilterConfiguration filter) {
+            this.scanId = scanId;
+            EngineFilterConfiguration sast = filter != null ? filter.getSastFilters() : null;
+            EngineFilterConfiguration sca = filter != null ? filter.getScaFilters() : null;
+            this.sastFilters = normalize(sast);
+            this.scaFilters = normalize(sca);
+            this.sastScript = getScript(sast);
+            this.scaScript = getScript(sca);
+        }
+
+        private static Set<String> normalize(EngineFilterConfiguration filters) {
+            if (filters == null || filters.getSimpleFilters() == null) {
+                return Collections.emptySet();
+            }
+            Set<String> normalized = new TreeSet<>();
+            for (Filter filter : filters.getSimpleFilters()) {
+                normalized.add(filter.getType() + "=" + StringUtils.defaultString(filter.getValue()).toUpperCase(Locale.ROOT));
+            }
+            return normalized;
+        }
+
+        private static Object getScript(EngineFilterConfiguration filters) {
+            return filters != null && filters.getScriptedFilter() != null ? filters.getScriptedFilter().getScript() : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (o == null || getClass() != o.getClass()) return false;
+            Key key = (Key) o;
+            return Objects.equals(scanId, key.scanId)
+                    && sastFilters.equals(key.sastFilters)
+                    && scaFilters.equals(key.scaFilters)
+                    && sastScript == key.sastScript
+                    && scaScript == key.scaScript;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(scanId, sastFilters, scaFilters,
+                    System.identityHashCode(sastScript), System.identityHashCode(scaScript));
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.cx.CxScanParams;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CxOD needs the team (business unit) and project of a scan for API calls that the SAST SDK interface
+ * does not pass along. This index captures that context as CxService calls are made and looks it up by
+ * team ID, project ID or scan ID. New scans start from a scan ID returned by CxOD, while requests for
+ * previous results start from the team and project and look for the last scan.
+ *
+ * Entries are never modified once published; every update replaces the entry with a copy, so readers
+ * on other threads always see a consistent record. Entries are evicted by count and by idle time.
+ */
+public class ScanParamsIndex {
+    private final Cache<String, CxScanParams> byTeam;
+    private final Cache<Integer, CxScanParams> byProject;
+    private final Cache<Integer, CxScanParams> byScan;
+
+    /**
+     * @param maximumSize maximum number of entries per index
+     * @param expireAfterAccess minutes after which an entry that was not accessed is evicted
+     */
+    public ScanParamsIndex(long maximumSize, long expireAfterAccess) {
+        this.byTeam = newCache(maximumSize, expireAfterAccess);
+        this.byProject = newCache(maximumSize, expireAfterAccess);
+        this.byScan = newCache(maximumSize, expireAfterAccess);
+    }
+
+    private static <K> Cache<K, CxScanParams> newCache(long maximumSize, long expireAfterAccess) {
+        return CacheBuilder.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess, TimeUnit.MINUTES)
+                .build();
+    }
+
+    /**
+     * Records the full path of a team once it was resolved from the navigation tree.
+     */
+    public void recordTeam(String teamId, String teamName) {
+        byTeam.asMap().compute(teamId, (id, current) -> {
+            CxScanParams params = copy(current, teamId);
+            params.setTeamName(teamName);
+            return params;
+        });
+    }
+
+    /**
+     * Records a project that was found under the team; the project becomes the latest project of the team.
+     */
+    public void recordProject(String teamId, Integer projectId, String projectName) {
+        CxScanParams params = byTeam.asMap().compute(teamId, (id, current) -> {
+            CxScanParams updated = copy(current, teamId);
+            updated.setProjectId(projectId);
+            updated.setProjectName(projectName);
+            return updated;
+        });
+        byProject.put(projectId, params);
+    }
+
+    /**
+     * Records the context of a scan. Only the team and project details of the parameters are kept.
+     */
+    public void recordScan(Integer scanId, CxScanParams params) {
+        CxScanParams record = copy(params, params.getTeamId());
+        byScan.put(scanId, record);
+        if (record.getProjectId() != null) {
+            byProject.put(record.getProjectId(), record);
+        }
+    }
+
+    public CxScanParams getByTeam(String teamId) {
+        return teamId == null ? null : byTeam.getIfPresent(teamId);
+    }
+
+    public CxScanParams getByProject(Integer projectId) {
+        if (projectId == null) {
+            return null;
+        }
+        CxScanParams params = byProject.getIfPresent(projectId);
+        return params != null && projectId.equals(params.getProjectId()) ? params : null;
+    }
+
+    public CxScanParams getByScan(Integer scanId) {
+        return scanId == null ? null : byScan.getIfPresent(scanId);
+    }
+
+    public long size() {
+        return byTeam.size() + byProject.size() + byScan.size();
+    }
+
+    private static CxScanParams copy(CxScanParams source, String teamId) {
+        CxScanParams params = new CxScanParams();
+        params.setTeamId(teamId);
+        if (source != null) {
+            params.setTeamName(source.getTeamName());
+            params.setProjectId(source.getProjectId());
+            params.setProjectName(source.getProjectName());
+            params.setBranch(source.getBranch());
+            params.setSourceType(source.getSourceType());
+        }
+        return params;
+    }
+}
@@ -0,0 +1,84 @@
+package com.checkmarx.sdk.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Chooses the delay before the next status poll of a scan. Young scans are polled often and the interval
+ * backs off as the scan runs longer. When the remaining time can be predicted, from the reported progress
+ * or from the duration of earlier scans of the same project, the next poll is aimed at the expected
+ * completion instead. A random jitter keeps pipelines that started together from polling in lockstep.
+ */
+public class ScanPollingPolicy {
+    /// Share of the elapsed time used as the backoff interval
+    private static final double BACKOFF_FACTOR = 0.25;
+    /// Weight of the latest duration in the per-project moving average
+    private static final double DURATION_WEIGHT = 0.3;
+
+    private final long minInterval;
+    private final long maxInterval;
+    private final double jitter;
+    private final Map<Integer, Long> averageDurations = new ConcurrentHashMap<>();
+
+    /**
+     * @param minInterval shortest delay between two polls in milliseconds
+     * @param maxInterval longest delay between two polls in milliseconds
+     * @param jitter relative random variation applied to each delay, e.g. 0.1 for +/- 10%
+     */
+    public ScanPollingPolicy(long minInterval, long maxInterval, double jitter) {
+        this.minInterval = minInterval;
+        this.maxInterval = Math.max(minInterval, maxInterval);
+        this.jitter = Math.max(0, Math.min(1, jitter));
+    }
+
+    /**
+     * @param projectId project of the scan, may be null if unknown
+     * @param elapsed milliseconds since tracking of the scan started
+     * @param progress progress reported by the last poll in percent, may be null
+     * @return milliseconds to wait before polling the scan again
+     */
+    public long nextDelay(Integer projectId, long elapsed, Integer progress) {
+        long delay = (long) (elapsed * BACKOFF_FACTOR);
+        long remaining = predictRemaining(projectId, elapsed, progress);
+        if (remaining > 0) {
+            /// Close in on the predicted completion, but never wait longer than the scan has already run
+            /// so a wrong prediction costs at most the elapsed time.
+            delay = Math.min(remaining / 2, Math.max(elapsed, minInterval));
+        }
+        delay = Math.max(minInterval, Math.min(maxInterval, delay));
+        if (jitter > 0) {
+            delay = Math.round(delay * (1 + jitter * (2 * ThreadLocalRandom.current().nextDouble() - 1)));
+        }
+        return delay;
+    }
+
+    /**
+     * Records how long a completed scan took, used to predict the duration of later scans of the project.
+     */
+    public void recordDuration(Integer projectId, long duration) {
+        if (projectId == null || duration <= 0) {
+            return;
+        }
+        averageDurations.merge(projectId, duration,
+                (average, latest) -> Math.round(DURATION_WEIGHT * latest + (1 - DURATION_WEIGHT) * average));
+    }
+
+    public Long getAverageDuration(Integer projectId) {
+        return projectId == null ? null : averageDurations.get(projectId);
+    }
+
+    /**
+     * @return predicted milliseconds until completion, or 0 if no prediction is possible or the scan is overdue
+     */
+    private long predictRemaining(Integer projectId, long elapsed, Integer progress) {
+        if (progress != null && progress > 0 && progress < 100 && elapsed > 0) {
+            return elapsed * (100 - progress) / progress;
+        }
+        Long average = getAverageDuration(projectId);
+        if (average != null) {
+            return Math.max(0, average - elapsed);
+        }
+        return 0;
+    }
+}
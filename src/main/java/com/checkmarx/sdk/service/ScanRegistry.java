@@ -0,0 +1,77 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.cx.CxScanParams;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Collection;
+
+/**
+ * Registry of scans submitted to CxGo that have not reached a terminal status yet. Implementations that
+ * persist the records allow tracking of in-flight scans to be resumed after a restart.
+ */
+public interface ScanRegistry {
+
+    /**
+     * Records a submitted scan.
+     */
+    void register(ScanRecord record);
+
+    /**
+     * Removes the scan once it reached a terminal status or was abandoned.
+     */
+    void complete(Integer scanId);
+
+    /**
+     * @return the record of the in-flight scan or null if it is not registered
+     */
+    ScanRecord get(Integer scanId);
+
+    /**
+     * @return all in-flight scans
+     */
+    Collection<ScanRecord> getInFlight();
+
+    /**
+     * Subset of the scan parameters needed to resume a scan. Source locations are not recorded as they
+     * may carry credentials.
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    class ScanRecord {
+        private Integer scanId;
+        private Integer projectId;
+        private String teamId;
+        private String teamName;
+        private String projectName;
+        private String branch;
+        private CxScanParams.Type sourceType;
+        private long submittedAt;
+
+        public ScanRecord(Integer scanId, CxScanParams params, long submittedAt) {
+            this.scanId = scanId;
+            this.projectId = params.getProjectId();
+            this.teamId = params.getTeamId();
+            this.teamName = params.getTeamName();
+            this.projectName = params.getProjectName();
+            this.branch = params.getBranch();
+            this.sourceType = params.getSourceType();
+            this.submittedAt = submittedAt;
+        }
+
+        public CxScanParams toScanParams() {
+            CxScanParams params = new CxScanParams();
+            params.setProjectId(projectId);
+            params.setTeamId(teamId);
+            params.setTeamName(teamName);
+            params.setProjectName(projectName);
+            params.setBranch(branch);
+            if (sourceType != null) {
+                params.setSourceType(sourceType);
+            }
+            return params;
+        }
+    }
+}
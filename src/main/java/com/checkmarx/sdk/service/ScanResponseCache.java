@@ -0,0 +1,316 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.od.Scan;
+import com.checkmarx.sdk.dto.od.ScanStatus;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.hash.Hashing;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Keeps the responses of finished CxGo scans on disk, so reports of a scan can be generated again without
+ * calling CxGo. The details, results, result items and source files of a finished scan never change;
+ * each scan gets a directory with one gzip compressed JSON file per response. Nothing is stored for a
+ * scan until its details were stored with a terminal status. Once the cache exceeds its size limit, the
+ * least recently used scans are evicted as a whole. Every read marks its scan as used, also on disk
+ * through the modification time of the scan directory, so the order survives a restart.
+ */
+@Slf4j
+public class ScanResponseCache {
+    static final String SCAN = "scan";
+    static final String RESULTS = "results";
+    static final String RESULT_ITEMS = "result-items";
+    private static final String CACHE_DIR = "scan-cache";
+    private static final String SUFFIX = ".json.gz";
+    private static final String TMP_SUFFIX = ".tmp";
+
+    private final Path root;
+    private final long maxSize;
+    private final ObjectMapper mapper;
+    /// Bytes on disk per cached scan, least recently used first
+    private final LinkedHashMap<Integer, Long> scans = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalSize = 0;
+    private boolean loaded = false;
+
+    /**
+     * @param statePath directory the cache directory is created in
+     * @param maxSize maximum bytes on disk
+     * @param mapper mapper used to write and read the responses
+     */
+    public ScanResponseCache(String statePath, long maxSize, ObjectMapper mapper) {
+        this.root = Paths.get(statePath, CACHE_DIR);
+        this.maxSize = maxSize;
+        this.mapper = mapper;
+    }
+
+    /**
+     * @return the cached details of a finished scan, or null if the scan is not cached
+     */
+    public Scan getScan(Integer scanId) {
+        return get(scanId, SCAN, new TypeReference<Scan>() {});
+    }
+
+    /**
+     * Stores the scan details if the scan is finished, which enables caching of its other responses.
+     */
+    public void putScan(Scan scan) {
+        if (scan == null || scan.getId() == null || !isFinished(scan.getStatus())) {
+            return;
+        }
+        write(scan.getId(), SCAN, out -> mapper.writeValue(out, scan));
+    }
+
+    /**
+     * @return true if the details of the finished scan are cached, so its responses can be cached
+     */
+    public boolean contains(Integer scanId) {
+        return scanId != null && Files.exists(getFile(scanId, SCAN));
+    }
+
+    /**
+     * @return the cached response, or null if it is not cached or cannot be read
+     */
+    public <T> T get(Integer scanId, String name, TypeReference<T> type) {
+        try (InputStream in = open(scanId, name)) {
+            return in == null ? null : mapper.readValue(in, type);
+        } catch (IOException e) {
+            log.warn("Unable to read cached {} of scan {} - {}", name, scanId, ExceptionUtils.getRootCauseMessage(e));
+            remove(scanId, name);
+            return null;
+        }
+    }
+
+    /**
+     * @return a stream of the decompressed response, or null if it is not cached
+     */
+    public InputStream open(Integer scanId, String name) throws IOException {
+        if (scanId == null) {
+            return null;
+        }
+        Path file = getFile(scanId, name);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        touch(scanId);
+        return new GZIPInputStream(Files.newInputStream(file));
+    }
+
+    /**
+     * Stores a response of a scan whose finished details are cached; ignored for other scans.
+     */
+    public void put(Integer scanId, String name, Object value) {
+        put(scanId, name, out -> mapper.writeValue(out, value));
+    }
+
+    /**
+     * Stores a response written by the writer, e.g. copied from a response body, if the finished
+     * details of the scan are cached.
+     *
+     * @return true if the response was stored
+     */
+    public boolean put(Integer scanId, String name, EntryWriter writer) {
+        return contains(scanId) && write(scanId, name, writer);
+    }
+
+    /**
+     * @return bytes on disk used by the cached scans
+     */
+    public synchronized long getTotalSize() {
+        load();
+        return totalSize;
+    }
+
+    /**
+     * @return entry name of a source file of the scan
+     */
+    static String getFileEntry(String filePath) {
+        return "file-" + Hashing.sha256().hashString(filePath, StandardCharsets.UTF_8);
+    }
+
+    static boolean isFinished(String status) {
+        return ScanStatus.Status.COMPLETED.name().equalsIgnoreCase(status)
+                || ScanStatus.Status.FAILED.name().equalsIgnoreCase(status);
+    }
+
+    private boolean write(Integer scanId, String name, EntryWriter writer) {
+        /// Index the earlier entries before any new file appears, see load
+        load();
+        Path file = getFile(scanId, name);
+        Path tmp = null;
+        try {
+            Files.createDirectories(file.getParent());
+            tmp = Files.createTempFile(file.getParent(), name, TMP_SUFFIX);
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp))) {
+                writer.write(out);
+            }
+            commit(scanId, tmp, file);
+            return true;
+        } catch (IOException e) {
+            log.warn("Unable to cache {} of scan {} - {}", name, scanId, ExceptionUtils.getRootCauseMessage(e));
+            if (tmp != null) {
+                delete(tmp);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Marks the scan as most recently used.
+     */
+    private synchronized void touch(Integer scanId) {
+        load();
+        /// Reading the entry moves it to the end of the access ordered map
+        scans.get(scanId);
+        try {
+            Files.setLastModifiedTime(getDirectory(scanId), FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            log.debug("Unable to update the access time of cached scan {}", scanId);
+        }
+    }
+
+    /**
+     * Replaces the entry with the written temporary file. Writers of the same entry are serialized here so
+     * the replaced size is accounted once.
+     */
+    private synchronized void commit(Integer scanId, Path tmp, Path file) throws IOException {
+        long size = Files.size(tmp);
+        long previous = Files.exists(file) ? Files.size(file) : 0;
+        Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        added(scanId, size - previous);
+    }
+
+    /**
+     * Removes an entry that cannot be read.
+     */
+    private synchronized void remove(Integer scanId, String name) {
+        load();
+        Path file = getFile(scanId, name);
+        long size = Files.exists(file) ? file.toFile().length() : 0;
+        delete(file);
+        if (scans.containsKey(scanId)) {
+            scans.merge(scanId, -size, Long::sum);
+            totalSize -= size;
+        }
+    }
+
+    private void added(Integer scanId, long size) {
+        scans.merge(scanId, size, Long::sum);
+        totalSize += size;
+        Iterator<Map.Entry<Integer, Long>> eldest = scans.entrySet().iterator();
+        while (totalSize > maxSize && eldest.hasNext()) {
+            Map.Entry<Integer, Long> entry = eldest.next();
+            if (entry.getKey().equals(scanId)) {
+                continue;
+            }
+            log.debug("Evicting cached responses of scan {}", entry.getKey());
+            delete(getDirectory(entry.getKey()));
+            totalSize -= entry.getValue();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * Indexes the scans cached by earlier runs, ordered by their last access. Temporary files left behind
+     * by interrupted writes are removed, so this must run before the first write of this run.
+     */
+    private synchronized void load() {
+        if (loaded) {
+            return;
+        }
+        loaded = true;
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<Path> directories = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+            for (Path directory : stream) {
+                if (Files.isDirectory(directory) && directory.getFileName().toString().matches("\\d+")) {
+                    directories.add(directory);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Unable to read scan cache {} - {}", root, ExceptionUtils.getRootCauseMessage(e));
+            return;
+        }
+        directories.sort(Comparator.comparingLong(ScanResponseCache::getLastModified));
+        for (Path directory : directories) {
+            long lastModified = getLastModified(directory);
+            try (DirectoryStream<Path> tmpFiles = Files.newDirectoryStream(directory, "*" + TMP_SUFFIX)) {
+                tmpFiles.forEach(ScanResponseCache::delete);
+            } catch (IOException e) {
+                log.debug("Unable to clean up {} - {}", directory, ExceptionUtils.getRootCauseMessage(e));
+            }
+            setLastModified(directory, lastModified);
+            long size = getSize(directory);
+            scans.put(Integer.valueOf(directory.getFileName().toString()), size);
+            totalSize += size;
+        }
+        log.info("Found {} cached scans using {} bytes in {}", scans.size(), totalSize, root);
+    }
+
+    private Path getDirectory(Integer scanId) {
+        return root.resolve(scanId.toString());
+    }
+
+    private Path getFile(Integer scanId, String name) {
+        return getDirectory(scanId).resolve(name + SUFFIX);
+    }
+
+    private static long getLastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void setLastModified(Path path, long lastModified) {
+        try {
+            Files.setLastModifiedTime(path, FileTime.fromMillis(lastModified));
+        } catch (IOException e) {
+            log.debug("Unable to restore the access time of {}", path);
+        }
+    }
+
+    private static long getSize(Path directory) {
+        try (Stream<Path> files = Files.walk(directory)) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void delete(Path path) {
+        try (Stream<Path> files = Files.walk(path)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        } catch (IOException e) {
+            log.debug("Unable to delete {} - {}", path, ExceptionUtils.getRootCauseMessage(e));
+        }
+    }
+
+    @FunctionalInterface
+    public interface EntryWriter {
+        void write(OutputStream out) throws IOException;
+    }
+}
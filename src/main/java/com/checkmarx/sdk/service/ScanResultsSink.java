@@ -0,0 +1,21 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.ScanResults;
+
+/**
+ * Receives the issues of a scan report one at a time, followed by the report summary.
+ */
+public interface ScanResultsSink {
+
+    /**
+     * Called for each issue that passed the filter. The issue is complete and is not modified afterwards.
+     */
+    void onIssue(ScanResults.XIssue issue);
+
+    /**
+     * Called once after the last issue.
+     *
+     * @param summary the report without issues: scan summary, SCA results, project and links
+     */
+    void onComplete(ScanResults summary);
+}
@@ -0,0 +1,32 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.od.SASTScanResult;
+import com.checkmarx.sdk.dto.od.SCAScanResult;
+
+/**
+ * Receives the raw findings of a CxGo scan one at a time, as they are decoded from the results response.
+ */
+public interface ScanResultsVisitor {
+
+    /**
+     * Called once before the SAST findings, also when the scan has no SAST findings.
+     */
+    default void startSast() {
+    }
+
+    void visitSast(SASTScanResult result);
+
+    /**
+     * Called once after the last SAST finding.
+     */
+    default void endSast() {
+    }
+
+    /**
+     * Called once before the SCA findings, also when the scan has no SCA findings.
+     */
+    default void startSca() {
+    }
+
+    void visitSca(SCAScanResult result);
+}
@@ -0,0 +1,306 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.ScanStatus;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Tracks in-flight CxGo scans and completes a future for each one when it reaches a terminal status.
+ * One scheduler thread decides which scans are due and hands their status requests to a bounded pool of
+ * workers, so waiting for a scan does not hold a thread per scan and a slow request does not delay the
+ * other scans. A scan is polled by one worker at a time; failed requests are retried with an exponential
+ * backoff before the scan fails. With batch polling enabled, the status of all tracked scans is refreshed from the
+ * scan list in one request. With adaptive polling, the interval of each scan is chosen by a
+ * {@link ScanPollingPolicy} instead of the fixed scan polling interval. Threads are started by
+ * {@link #start()}, or when the first scan is tracked, and stopped by {@link #shutdown()}.
+ */
+@Slf4j
+public class ScanTracker {
+    private static final long MAX_TICK_MILLIS = 1000;
+    private static final int MIN_BATCH_SIZE = 2;
+    /// Consecutive failed status requests after which a scan fails
+    private static final int MAX_POLL_ERRORS = 3;
+    private static final long MAX_ERROR_BACKOFF_MILLIS = 60000;
+
+    private final CxProperties cxProperties;
+    private final ScanStatusFetcher statusFetcher;
+    private final BatchStatusFetcher batchStatusFetcher;
+    private final ScanPollingPolicy pollingPolicy;
+    private final ConcurrentMap<Integer, TrackedScan> scans = new ConcurrentHashMap<>();
+    private final long tick;
+    private ScheduledExecutorService scheduler;
+    private ExecutorService workers;
+    private volatile boolean stopped = false;
+
+    public ScanTracker(CxProperties cxProperties, ScanStatusFetcher statusFetcher, BatchStatusFetcher batchStatusFetcher) {
+        this.cxProperties = cxProperties;
+        this.statusFetcher = statusFetcher;
+        this.batchStatusFetcher = batchStatusFetcher;
+        long tick = Math.min(MAX_TICK_MILLIS, cxProperties.getScanPolling());
+        if (cxProperties.getAdaptiveScanPolling()) {
+            this.pollingPolicy = new ScanPollingPolicy(cxProperties.getScanPollingMin(),
+                    cxProperties.getScanPollingMax(), cxProperties.getScanPollingJitter());
+            tick = Math.min(MAX_TICK_MILLIS, cxProperties.getScanPollingMin());
+        } else {
+            this.pollingPolicy = null;
+        }
+        this.tick = tick;
+    }
+
+    /**
+     * Starts the scheduler and the workers, unless they are running or tracking was stopped.
+     */
+    public synchronized void start() {
+        if (scheduler != null || stopped) {
+            return;
+        }
+        int threads = Math.max(1, cxProperties.getScanPollingThreads());
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads("cx-scan-poller-"));
+        pool.allowCoreThreadTimeOut(true);
+        workers = pool;
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("cx-scan-tracker-"));
+        scheduler.scheduleWithFixedDelay(this::poll, tick, tick, TimeUnit.MILLISECONDS);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return r -> {
+            Thread thread = new Thread(r, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Starts tracking the scan, or joins the tracking already in progress.
+     *
+     * @param scanId CxGo scan ID
+     * @param projectId project of the scan, used to predict its duration; may be null
+     * @return future completed with the COMPLETED or FAILED status, or exceptionally on timeout or error
+     */
+    public CompletableFuture<ScanStatus> track(Integer scanId, Integer projectId) {
+        return track(scanId, projectId, System.currentTimeMillis());
+    }
+
+    /**
+     * Starts tracking a scan that was submitted earlier, e.g. one resumed after a restart.
+     *
+     * @param startedAt time the scan was submitted, the scan timeout is counted from it
+     */
+    public CompletableFuture<ScanStatus> track(Integer scanId, Integer projectId, long startedAt) {
+        start();
+        if (stopped) {
+            CompletableFuture<ScanStatus> future = new CompletableFuture<>();
+            future.completeExceptionally(new CheckmarxException("Scan tracking stopped"));
+            return future;
+        }
+        TrackedScan trackedScan = scans.computeIfAbsent(scanId, id -> new TrackedScan(id, projectId, startedAt));
+        return trackedScan.future.thenApply(status -> status);
+    }
+
+    /**
+     * Stops tracking the scan and fails its waiters with the given reason, e.g. after it was cancelled.
+     */
+    public void cancel(Integer scanId, CheckmarxException reason) {
+        TrackedScan scan = scans.get(scanId);
+        if (scan != null) {
+            fail(scan, reason);
+        }
+    }
+
+    public int getTrackedScanCount() {
+        return scans.size();
+    }
+
+    /**
+     * @return true once tracking was stopped; scans failed by the shutdown are still in flight
+     */
+    public boolean isStopped() {
+        return stopped;
+    }
+
+    public synchronized void shutdown() {
+        stopped = true;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            workers.shutdownNow();
+        }
+        scans.values().forEach(scan ->
+                scan.future.completeExceptionally(new CheckmarxException("Scan tracking stopped")));
+        scans.clear();
+    }
+
+    /**
+     * Runs on the scheduler: hands the due scans to the workers without waiting for their requests.
+     */
+    private void poll() {
+        long now = System.currentTimeMillis();
+        List<TrackedScan> due = new ArrayList<>();
+        for (TrackedScan scan : scans.values()) {
+            if (scan.nextPollAt <= now && scan.polling.compareAndSet(false, true)) {
+                due.add(scan);
+            }
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+        if (batchStatusFetcher != null && cxProperties.getScanBatchPolling() && due.size() >= MIN_BATCH_SIZE) {
+            submit(due, () -> pollBatch(due));
+        } else {
+            for (TrackedScan scan : due) {
+                submit(Collections.singletonList(scan), () -> pollSingle(scan));
+            }
+        }
+    }
+
+    /**
+     * Runs the polls of the claimed scans on a worker; the scans are polled again on a later tick if
+     * the workers are stopped.
+     */
+    private void submit(List<TrackedScan> claimed, Runnable task) {
+        try {
+            workers.execute(task);
+        } catch (RejectedExecutionException e) {
+            claimed.forEach(scan -> scan.polling.set(false));
+        }
+    }
+
+    /**
+     * In batch mode one scan list request refreshes every tracked scan it contains, so the API load
+     * depends on the polling interval rather than the number of scans. Scans missing from the list
+     * are polled individually.
+     */
+    private void pollBatch(List<TrackedScan> due) {
+        Map<Integer, ScanStatus> batch;
+        try {
+            batch = batchStatusFetcher.getScanStatuses();
+        } catch (CheckmarxException | RuntimeException e) {
+            log.warn("Batch scan status poll failed, falling back to polling each scan: {}", ExceptionUtils.getRootCauseMessage(e));
+            batch = Collections.emptyMap();
+        }
+        long now = System.currentTimeMillis();
+        for (TrackedScan scan : scans.values()) {
+            ScanStatus scanStatus = batch.get(scan.scanId);
+            if (scanStatus != null && !due.contains(scan) && scan.polling.compareAndSet(false, true)) {
+                update(scan, scanStatus, now);
+                scan.polling.set(false);
+            }
+        }
+        for (TrackedScan scan : due) {
+            ScanStatus scanStatus = batch.get(scan.scanId);
+            if (scanStatus != null) {
+                update(scan, scanStatus, now);
+                scan.polling.set(false);
+            } else {
+                submit(Collections.singletonList(scan), () -> pollSingle(scan));
+            }
+        }
+    }
+
+    private void pollSingle(TrackedScan scan) {
+        try {
+            update(scan, statusFetcher.getScanStatus(scan.scanId), System.currentTimeMillis());
+        } catch (CheckmarxException e) {
+            retryOrFail(scan, e);
+        } catch (RuntimeException e) {
+            log.error("Error polling status of scan {}: {}", scan.scanId, ExceptionUtils.getRootCauseMessage(e), e);
+            retryOrFail(scan, new CheckmarxException("Error occurred while retrieving the scan status for id ".concat(scan.scanId.toString())));
+        } finally {
+            scan.polling.set(false);
+        }
+    }
+
+    private void update(TrackedScan scan, ScanStatus scanStatus, long now) {
+        ScanStatus.Status status = scanStatus.getStatus();
+        log.info("scanId: {}, status: {}, progress: {}", scan.scanId, status, scanStatus.getProgress());
+        scan.pollErrors = 0;
+        if (ScanStatus.Status.COMPLETED.equals(status) || ScanStatus.Status.FAILED.equals(status)) {
+            scans.remove(scan.scanId);
+            if (pollingPolicy != null && ScanStatus.Status.COMPLETED.equals(status)) {
+                pollingPolicy.recordDuration(scan.projectId, now - scan.startedAt);
+            }
+            scan.future.complete(scanStatus);
+        } else if (now - scan.startedAt >= TimeUnit.MINUTES.toMillis(cxProperties.getScanTimeout())) {
+            log.error("Scan timeout exceeded.  {} minutes", cxProperties.getScanTimeout());
+            fail(scan, new CheckmarxException("Timeout exceeded during scan"));
+        } else if (pollingPolicy != null) {
+            scan.nextPollAt = now + pollingPolicy.nextDelay(scan.projectId, now - scan.startedAt, scanStatus.getProgress());
+        } else {
+            scan.nextPollAt = now + cxProperties.getScanPolling();
+        }
+    }
+
+    /**
+     * Polls the scan again after a delay that doubles with each consecutive error, so an unavailable
+     * server is not hammered, and fails the scan once errors persist.
+     */
+    private void retryOrFail(TrackedScan scan, CheckmarxException e) {
+        long now = System.currentTimeMillis();
+        int errors = ++scan.pollErrors;
+        if (errors >= MAX_POLL_ERRORS || now - scan.startedAt >= TimeUnit.MINUTES.toMillis(cxProperties.getScanTimeout())) {
+            fail(scan, e);
+            return;
+        }
+        long interval = pollingPolicy != null ? cxProperties.getScanPollingMin() : cxProperties.getScanPolling();
+        long delay = Math.min(Math.max(interval, MAX_ERROR_BACKOFF_MILLIS), interval << errors);
+        log.warn("Polling scan {} failed, retrying in {} ms: {}", scan.scanId, delay, e.getMessage());
+        scan.nextPollAt = now + delay;
+    }
+
+    private void fail(TrackedScan scan, CheckmarxException e) {
+        scans.remove(scan.scanId);
+        scan.future.completeExceptionally(e);
+    }
+
+    @FunctionalInterface
+    public interface ScanStatusFetcher {
+        ScanStatus getScanStatus(Integer scanId) throws CheckmarxException;
+    }
+
+    @FunctionalInterface
+    public interface BatchStatusFetcher {
+        /**
+         * @return status of the scans known to the server, keyed by scan ID
+         */
+        Map<Integer, ScanStatus> getScanStatuses() throws CheckmarxException;
+    }
+
+    private static class TrackedScan {
+        private final Integer scanId;
+        private final Integer projectId;
+        private final long startedAt;
+        private final CompletableFuture<ScanStatus> future = new CompletableFuture<>();
+        /// Set while a worker polls the scan
+        private final AtomicBoolean polling = new AtomicBoolean();
+        private volatile long nextPollAt;
+        private volatile int pollErrors;
+
+        private TrackedScan(Integer scanId, Integer projectId, long startedAt) {
+            this.scanId = scanId;
+            this.projectId = projectId;
+            this.startedAt = startedAt;
+            this.nextPollAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.exception.ExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Manages the scratch space under {@link CxProperties#getGitClonePath()} used for clones and scan archives.
+ * Callers lease workspace before cloning; leases are capped in number and by an estimated byte quota, and
+ * callers block until capacity is available. Everything created through a lease is removed when the lease
+ * is closed, and a janitor removes clones and archives left behind by crashes or failed cleanups.
+ */
+@Service
+@Slf4j
+public class WorkspaceManager {
+    private static final Pattern CLONE_DIR = Pattern.compile("[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}");
+    private static final Pattern ARCHIVE_FILE = Pattern.compile("cx\\.[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\.zip");
+    /// Prefix of retained paths, which no longer match the names the janitor removes
+    private static final String RETAINED_PREFIX = "retained-";
+    private static final long MB = 1024L * 1024L;
+
+    private final CxProperties cxProperties;
+    private final Set<String> leasedPaths = ConcurrentHashMap.newKeySet();
+    private final Map<String, Long> observedSizes = new ConcurrentHashMap<>();
+    private final AtomicLong orphansRemoved = new AtomicLong();
+    private final AtomicLong blockedAcquires = new AtomicLong();
+    private ScheduledExecutorService janitor;
+    private int activeLeases = 0;
+    private long reservedBytes = 0;
+    private volatile long diskUsageBytes = 0;
+
+    public WorkspaceManager(CxProperties cxProperties) {
+        this.cxProperties = cxProperties;
+    }
+
+    @PostConstruct
+    public void init() {
+        Integer interval = cxProperties.getWorkspaceJanitorInterval();
+        if (interval == null || interval <= 0) {
+            log.info("Workspace janitor disabled, orphaned clones and archives are not swept");
+            return;
+        }
+        janitor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cx-workspace-janitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        janitor.scheduleWithFixedDelay(this::sweep, 0, interval, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (janitor != null) {
+            janitor.shutdownNow();
+        }
+    }
+
+    /**
+     * Leases workspace for a clone, waiting until the concurrency cap and byte quota allow it.
+     *
+     * @param key identifies the repository so its last observed size can be used as the reservation
+     * @return the lease, which must be closed once the clone and archive are no longer needed
+     * @throws CheckmarxException if no workspace became available within the configured wait time
+     */
+    public Lease acquire(String key) throws CheckmarxException {
+        long reservation = observedSizes.getOrDefault(key, cxProperties.getWorkspaceCloneEstimate() * MB);
+        long quota = cxProperties.getWorkspaceQuota() * MB;
+        int maxLeases = cxProperties.getMaxConcurrentClones();
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(cxProperties.getWorkspaceWaitTimeout());
+        synchronized (this) {
+            boolean blocked = false;
+            while ((maxLeases > 0 && activeLeases >= maxLeases) ||
+                    (quota > 0 && reservedBytes > 0 && reservedBytes + reservation > quota)) {
+                long remaining = deadline - System.currentTimeMillis();
+                if (remaining <= 0) {
+                    log.error("Timed out waiting for clone workspace: {} active leases, {} bytes reserved", activeLeases, reservedBytes);
+                    throw new CheckmarxException("Timed out waiting for clone workspace");
+                }
+                if (!blocked) {
+                    blocked = true;
+                    blockedAcquires.incrementAndGet();
+                    log.info("Waiting for clone workspace: {} active leases, {} bytes reserved", activeLeases, reservedBytes);
+                }
+                try {
+                    wait(remaining);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new CheckmarxException("Interrupted while waiting for clone workspace");
+                }
+            }
+            activeLeases++;
+            reservedBytes += reservation;
+        }
+        return new Lease(key, reservation);
+    }
+
+    private synchronized void release(long reservation) {
+        activeLeases--;
+        reservedBytes -= reservation;
+        notifyAll();
+    }
+
+    private synchronized void adjustReservation(long delta) {
+        reservedBytes += delta;
+        if (delta < 0) {
+            notifyAll();
+        }
+    }
+
+    /**
+     * Removes clone directories and scan archives that are not leased and older than the configured orphan age.
+     */
+    public void sweep() {
+        File root = new File(cxProperties.getGitClonePath());
+        File[] entries = root.listFiles();
+        if (entries == null) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(cxProperties.getWorkspaceOrphanAge());
+        long usage = 0;
+        for (File entry : entries) {
+            if (!isManaged(entry)) {
+                continue;
+            }
+            if (!leasedPaths.contains(entry.getAbsolutePath()) && entry.lastModified() < cutoff) {
+                log.info("Removing orphaned workspace entry {}", entry);
+                if (deleteQuietly(entry)) {
+                    orphansRemoved.incrementAndGet();
+                    continue;
+                }
+            }
+            usage += entry.isDirectory() ? FileUtils.sizeOfDirectory(entry) : entry.length();
+        }
+        diskUsageBytes = usage;
+    }
+
+    /**
+     * Only UUID named git clones and cx.UUID.zip archives are considered, so unrelated content of a
+     * shared directory such as /tmp is never touched.
+     */
+    private static boolean isManaged(File entry) {
+        if (entry.isDirectory()) {
+            return CLONE_DIR.matcher(entry.getName()).matches() && new File(entry, ".git").isDirectory();
+        }
+        return ARCHIVE_FILE.matcher(entry.getName()).matches();
+    }
+
+    private static boolean deleteQuietly(File file) {
+        try {
+            if (file.isDirectory()) {
+                FileUtils.deleteDirectory(file);
+            } else {
+                FileUtils.forceDelete(file);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Error deleting {} - {}", file, ExceptionUtils.getRootCauseMessage(e));
+            return false;
+        }
+    }
+
+    public synchronized WorkspaceUsage getUsage() {
+        return new WorkspaceUsage(activeLeases, reservedBytes, diskUsageBytes, cxProperties.getWorkspaceQuota() * MB,
+                blockedAcquires.get(), orphansRemoved.get());
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class WorkspaceUsage {
+        private final int activeLeases;
+        private final long reservedBytes;
+        private final long diskUsageBytes;
+        private final long quotaBytes;
+        private final long blockedAcquires;
+        private final long orphansRemoved;
+    }
+
+    /**
+     * Workspace held by a single clone. Paths created through the lease are deleted when it is closed,
+     * unless ownership is handed over with {@link #retain(File)}.
+     */
+    public class Lease implements AutoCloseable {
+        private final String key;
+        private final Set<String> paths = ConcurrentHashMap.newKeySet();
+        private long reservation;
+        private boolean closed = false;
+
+        private Lease(String key, long reservation) {
+            this.key = key;
+            this.reservation = reservation;
+        }
+
+        public File newDirectory() {
+            return track(new File(cxProperties.getGitClonePath(), UUID.randomUUID().toString()));
+        }
+
+        public File newArchive() {
+            return track(new File(cxProperties.getGitClonePath(), "cx.".concat(UUID.randomUUID().toString()).concat(".zip")));
+        }
+
+        private File track(File file) {
+            String path = file.getAbsolutePath();
+            paths.add(path);
+            leasedPaths.add(path);
+            return file;
+        }
+
+        /**
+         * Records the bytes actually used by this clone; the figure is used as the reservation for the next clone
+         * of the same repository.
+         */
+        public synchronized void recordUsage(long bytes) {
+            observedSizes.put(key, bytes);
+            if (!closed) {
+                adjustReservation(bytes - reservation);
+                reservation = bytes;
+            }
+        }
+
+        public void delete(File file) {
+            deleteQuietly(file);
+            untrack(file);
+        }
+
+        /**
+         * Hands the file over to the caller, who becomes responsible for deleting it. The file is renamed
+         * so that neither closing the lease nor the janitor removes it.
+         *
+         * @return the retained file
+         * @throws CheckmarxException if the file cannot be renamed
+         */
+        public File retain(File file) throws CheckmarxException {
+            File retained = new File(file.getParentFile(), RETAINED_PREFIX.concat(file.getName()));
+            if (file.exists()) {
+                try {
+                    Files.move(file.toPath(), retained.toPath(), StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.error("Error retaining {} - {}", file, ExceptionUtils.getRootCauseMessage(e));
+                    throw new CheckmarxException("Error retaining workspace file ".concat(file.getName()));
+                }
+            }
+            untrack(file);
+            return retained;
+        }
+
+        private void untrack(File file) {
+            String path = file.getAbsolutePath();
+            paths.remove(path);
+            leasedPaths.remove(path);
+        }
+
+        @Override
+        public synchronized void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (String path : paths) {
+                File file = new File(path);
+                if (file.exists()) {
+                    deleteQuietly(file);
+                }
+                leasedPaths.remove(path);
+            }
+            paths.clear();
+            release(reservation);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.checkmarx.sdk.utils;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Map with int keys stored unboxed in an open addressing table with linear probing. Entries take no
+ * node objects, and the int methods avoid boxing altogether; the {@link Map} methods remain available
+ * for callers that expect a regular map. Removed slots are marked and reclaimed on the next rehash.
+ * Null keys are not supported, null values are. The map is not thread safe.
+ *
+ * @param <V> type of the values
+ */
+public class IntObjectHashMap<V> extends AbstractMap<Integer, V> {
+    private static final int DEFAULT_CAPACITY = 4;
+    private static final float LOAD_FACTOR = 0.6f;
+    /// Values of free slots are null, so null values and removed slots are stored as markers
+    private static final Object NULL_VALUE = new Object();
+    private static final Object REMOVED = new Object();
+
+    private int[] keys;
+    private Object[] values;
+    private int size = 0;
+    /// Slots that are in use or marked removed
+    private int filled = 0;
+    private int threshold;
+    private int modCount = 0;
+    private Set<Entry<Integer, V>> entrySet;
+
+    public IntObjectHashMap() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of entries the map holds without growing
+     */
+    public IntObjectHashMap(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    public V get(int key) {
+        int index = indexOf(key);
+        return index < 0 ? null : unmask(values[index]);
+    }
+
+    public boolean containsKey(int key) {
+        return indexOf(key) >= 0;
+    }
+
+    public V put(int key, V value) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        int removed = -1;
+        Object current;
+        while ((current = values[index]) != null) {
+            if (current == REMOVED) {
+                if (removed < 0) {
+                    removed = index;
+                }
+            } else if (keys[index] == key) {
+                values[index] = mask(value);
+                return unmask(current);
+            }
+            index = (index + 1) & mask;
+        }
+        if (removed >= 0) {
+            index = removed;
+        } else {
+            filled++;
+        }
+        keys[index] = key;
+        values[index] = mask(value);
+        size++;
+        modCount++;
+        if (filled > threshold) {
+            rehash(size > threshold / 2 ? keys.length * 2 : keys.length);
+        }
+        return null;
+    }
+
+    public V remove(int key) {
+        int index = indexOf(key);
+        if (index < 0) {
+            return null;
+        }
+        V previous = unmask(values[index]);
+        removeAt(index);
+        return previous;
+    }
+
+    @Override
+    public V get(Object key) {
+        return key instanceof Integer ? get(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return key instanceof Integer && containsKey(((Integer) key).intValue());
+    }
+
+    @Override
+    public V put(Integer key, V value) {
+        return put(key.intValue(), value);
+    }
+
+    @Override
+    public V remove(Object key) {
+        return key instanceof Integer ? remove(((Integer) key).intValue()) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+        filled = 0;
+        modCount++;
+    }
+
+    @Override
+    public Set<Entry<Integer, V>> entrySet() {
+        if (entrySet == null) {
+            entrySet = new EntrySet();
+        }
+        return entrySet;
+    }
+
+    private int indexOf(int key) {
+        int mask = keys.length - 1;
+        int index = hash(key) & mask;
+        Object current;
+        while ((current = values[index]) != null) {
+            if (current != REMOVED && keys[index] == key) {
+                return index;
+            }
+            index = (index + 1) & mask;
+        }
+        return -1;
+    }
+
+    private void removeAt(int index) {
+        values[index] = REMOVED;
+        size--;
+        modCount++;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            Object value = oldValues[i];
+            if (value != null && value != REMOVED) {
+                int index = hash(oldKeys[i]) & mask;
+                while (values[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                keys[index] = oldKeys[i];
+                values[index] = value;
+            }
+        }
+        filled = size;
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity * LOAD_FACTOR < expectedSize) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Spreads sequential keys such as line numbers across the table.
+     */
+    private static int hash(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static Object mask(Object value) {
+        return value == null ? NULL_VALUE : value;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <V> V unmask(Object value) {
+        return value == NULL_VALUE ? null : (V) value;
+    }
+
+    private class EntrySet extends AbstractSet<Entry<Integer, V>> {
+        @Override
+        public Iterator<Entry<Integer, V>> iterator() {
+            return new EntryIterator();
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public void clear() {
+            IntObjectHashMap.this.clear();
+        }
+    }
+
+    private class EntryIterator implements Iterator<Entry<Integer, V>> {
+        private int next = -1;
+        private int current = -1;
+        private int expectedModCount = modCount;
+
+        private EntryIterator() {
+            advance();
+        }
+
+        private void advance() {
+            do {
+                next++;
+            } while (next < values.length && (values[next] == null || values[next] == REMOVED));
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next < values.length;
+        }
+
+        @Override
+        public Entry<Integer, V> next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            current = next;
+            advance();
+            return new MapEntry(current);
+        }
+
+        @Override
+        public void remove() {
+            if (current < 0) {
+                throw new IllegalStateException();
+            }
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            removeAt(current);
+            current = -1;
+            expectedModCount = modCount;
+        }
+    }
+
+    private class MapEntry extends SimpleEntry<Integer, V> {
+        private static final long serialVersionUID = 1L;
+
+        private final int index;
+
+        private MapEntry(int index) {
+            super(keys[index], IntObjectHashMap.<V>unmask(values[index]));
+            this.index = index;
+        }
+
+        @Override
+        public V setValue(V value) {
+            values[index] = mask(value);
+            return super.setValue(value);
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.checkmarx.sdk.utils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Canonicalizes the strings of one report. Findings repeat the same file paths, vulnerability names,
+ * languages and severities many times, each decoded into its own String instance; passing them through
+ * the pool keeps a single instance per value for the lifetime of the report.
+ *
+ * Unlike {@link String#intern()} the pool is dropped with the report, so values of earlier reports are
+ * not retained. It is not thread safe and is meant to be confined to the thread assembling the report.
+ */
+public class StringPool {
+    /// Estimated size of a String and its backing array without the characters, on a 64-bit JVM
+    private static final int STRING_OVERHEAD = 40;
+
+    private final Map<String, String> strings = new HashMap<>();
+    private long duplicates = 0;
+    private long bytesSaved = 0;
+
+    /**
+     * @return the pooled instance equal to the value, or the value itself if it was not seen before
+     */
+    public String get(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = strings.putIfAbsent(value, value);
+        if (pooled == null) {
+            return value;
+        }
+        if (pooled != value) {
+            duplicates++;
+            bytesSaved += STRING_OVERHEAD + 2L * value.length();
+        }
+        return pooled;
+    }
+
+    /**
+     * Replaces the elements of the list with their pooled instances.
+     */
+    public void replaceAll(List<String> values) {
+        if (values != null) {
+            values.replaceAll(this::get);
+        }
+    }
+
+    public int size() {
+        return strings.size();
+    }
+
+    public long getDuplicates() {
+        return duplicates;
+    }
+
+    /**
+     * @return estimated heap no longer held by the duplicate instances that were replaced
+     */
+    public long getBytesSaved() {
+        return bytesSaved;
+    }
+}
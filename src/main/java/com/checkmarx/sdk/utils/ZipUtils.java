@@ -6,6 +6,7 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.FileSystems;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 import java.util.regex.Matcher;
@@ -46,6 +47,39 @@ public class ZipUtils {
         log.info("Successfully created {} ", zipFile);
     }
 
+    /**
+     * Creates a zip file containing only the given files, keeping their path relative to the base directory.
+     *
+     * @param baseDir directory the file paths are relative to
+     * @param files relative paths of the files to include
+     * @param zipFile zip file to create
+     * @param excludePatterns comma separated exclusion regex patterns
+     */
+    public static void zipFiles(String baseDir, Collection<String> files, String zipFile, String excludePatterns)
+            throws IOException {
+        List<String> excludeList = null;
+        log.info("Creating zip file {} from {} files under path {}", zipFile, files.size(), baseDir);
+        if(!ScanUtils.empty(excludePatterns)) {
+            log.info("Applying exclusions: {}", excludePatterns);
+            excludeList = Arrays.asList(excludePatterns.split(","));
+        }
+
+        zipFile = FileSystems.getDefault().getPath(zipFile).toAbsolutePath().toString();
+        try (ZipOutputStream zipOut = new ZipOutputStream(new FileOutputStream(zipFile))) {
+            for (String file : files) {
+                File srcFile = new File(baseDir, file);
+                if (!srcFile.isFile()) {
+                    continue;
+                }
+                int idx = file.lastIndexOf('/');
+                String parent = idx > 0 ? file.substring(0, idx) : "";
+                addToZip(parent, srcFile.getPath(), zipFile, zipOut, excludeList);
+            }
+            zipOut.flush();
+        }
+        log.info("Successfully created {} ", zipFile);
+    }
+
     private static void addToZip(String path, String srcFile, String zipFile, ZipOutputStream zipOut, List<String> excludePatterns)
             throws IOException {
         File file = new File(srcFile);
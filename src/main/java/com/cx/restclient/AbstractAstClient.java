@@ -11,6 +11,7 @@ import com.cx.restclient.dto.ScanResults;
 import com.cx.restclient.dto.SourceLocationType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
+import org.modelmapper.ModelMapper;
 
 import java.io.File;
 import java.net.MalformedURLException;
@@ -22,6 +23,11 @@ public abstract class AbstractAstClient implements AstClient {
 
     private static final int SCA_SCAN_INTERVAL_IN_SECONDS = 5;
     protected static final String ERROR_PREFIX = "Scan cannot be initiated.";
+    /**
+     * Shared by all conversions: ModelMapper is thread safe once configured and caches the type maps it
+     * builds by reflection, which a new instance per scan would rebuild every time.
+     */
+    protected static final ModelMapper MODEL_MAPPER = new ModelMapper();
 
     @Override
     public ASTResultsWrapper scan(ScanParams scanParams) {
@@ -14,7 +14,6 @@ import com.cx.restclient.dto.ScanResults;
 import com.cx.restclient.dto.ScannerType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 @Slf4j
@@ -35,8 +34,7 @@ public class AstClientImpl extends AbstractAstClient {
     protected ASTResultsWrapper toResults(ScanResults scanResults) {
         validateNotNull(scanResults.getAstResults());
 
-        ModelMapper mapper = new ModelMapper();
-        ASTResults astResults = mapper.map(scanResults.getAstResults(), ASTResults.class);
+        ASTResults astResults = MODEL_MAPPER.map(scanResults.getAstResults(), ASTResults.class);
 
         return new ASTResultsWrapper(new SCAResults(), astResults);
     }
@@ -7,9 +7,12 @@ import com.checkmarx.sdk.dto.ast.ASTResultsWrapper;
 import com.checkmarx.sdk.dto.ast.SCAResults;
 import com.checkmarx.sdk.dto.ast.ScanParams;
 import com.checkmarx.sdk.exception.ASTRuntimeException;
+import com.checkmarx.sdk.utils.StringPool;
 import com.cx.restclient.ast.dto.sca.AstScaConfig;
 import com.cx.restclient.ast.dto.sca.AstScaResults;
 import com.cx.restclient.ast.dto.sca.report.AstScaSummaryResults;
+import com.cx.restclient.ast.dto.sca.report.Finding;
+import com.cx.restclient.ast.dto.sca.report.Package;
 import com.cx.restclient.configuration.CxScanConfig;
 import com.cx.restclient.dto.ScanResults;
 import com.cx.restclient.dto.ScannerType;
@@ -17,7 +20,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections.CollectionUtils;
 import org.apache.commons.lang3.StringUtils;
-import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
@@ -122,15 +124,51 @@ public class ScaClientImpl extends AbstractAstClient {
         AstScaSummaryResults summary = scaResultsFromCommonClient.getScaResults().getSummary();
         Map<Filter.Severity, Integer> findingCountsPerSeverity = getFindingCountMap(summary);
 
-        ModelMapper mapper = new ModelMapper();
-        SCAResults result = mapper.map(scaResultsFromCommonClient.getScaResults(), SCAResults.class);
+        SCAResults result = MODEL_MAPPER.map(scaResultsFromCommonClient.getScaResults(), SCAResults.class);
         result.getSummary().setFindingCounts(findingCountsPerSeverity);
+        deduplicateStrings(result);
 
         ASTResultsWrapper results = new ASTResultsWrapper();
         results.setScaResults(result);
         return results;
     }
 
+    /**
+     * Findings of one CVE share descriptions and references across packages, and packages share licenses,
+     * repositories and dates; keep a single instance of each value.
+     */
+    private static void deduplicateStrings(SCAResults result) {
+        StringPool strings = new StringPool();
+        if (result.getFindings() != null) {
+            for (Finding finding : result.getFindings()) {
+                finding.setCveName(strings.get(finding.getCveName()));
+                finding.setPublishDate(strings.get(finding.getPublishDate()));
+                finding.setDescription(strings.get(finding.getDescription()));
+                finding.setRecommendations(strings.get(finding.getRecommendations()));
+                finding.setPackageId(strings.get(finding.getPackageId()));
+                finding.setFixResolutionText(strings.get(finding.getFixResolutionText()));
+                strings.replaceAll(finding.getReferences());
+            }
+        }
+        if (result.getPackages() != null) {
+            for (Package pkg : result.getPackages()) {
+                pkg.setId(strings.get(pkg.getId()));
+                pkg.setName(strings.get(pkg.getName()));
+                pkg.setVersion(strings.get(pkg.getVersion()));
+                pkg.setMatchType(strings.get(pkg.getMatchType()));
+                pkg.setReleaseDate(strings.get(pkg.getReleaseDate()));
+                pkg.setNewestVersion(strings.get(pkg.getNewestVersion()));
+                pkg.setNewestVersionReleaseDate(strings.get(pkg.getNewestVersionReleaseDate()));
+                pkg.setConfidenceLevel(strings.get(pkg.getConfidenceLevel()));
+                pkg.setPackageRepository(strings.get(pkg.getPackageRepository()));
+                strings.replaceAll(pkg.getLicenses());
+                strings.replaceAll(pkg.getLocations());
+            }
+        }
+        log.info("Replaced {} duplicate strings in the SCA results, saving about {} bytes",
+                strings.getDuplicates(), strings.getBytesSaved());
+    }
+
     @Override
     public ASTResultsWrapper getLatestScanResults(ScanParams scanParams) {
         CxScanConfig commonClientScanConfig = getScanConfig(scanParams);
@@ -252,4 +290,4 @@ public class ScaClientImpl extends AbstractAstClient {
     private boolean isNotEmptyDouble(Double d) {
         return (d != null && d >= 0.0);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package com.checkmarx.sdk.config;
+
+import com.checkmarx.sdk.dto.od.ScanResults;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes a results response whose findings and nodes carry fields without a DTO property, with and
+ * without checkmarx.lean-deserialization. Run from the test classpath with org.openjdk.jmh.Main, add
+ * {@code -prof gc} for the allocated bytes per decode. {@link #main(String[])} prints the heap retained
+ * by the decoded results.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LeanDeserializationBenchmark {
+    private static final int FINDINGS = 5000;
+
+    @Param({"0", "2"})
+    public int unknownFields;
+
+    @Param({"false", "true"})
+    public boolean lean;
+
+    private byte[] json;
+    private ObjectReader reader;
+
+    @Setup
+    public void setUp() throws Exception {
+        json = ScanResultsFixture.json(FINDINGS, unknownFields);
+        reader = newReader(lean);
+    }
+
+    @Benchmark
+    public ScanResults decode() throws Exception {
+        return reader.readValue(json);
+    }
+
+    private static ObjectReader newReader(boolean lean) {
+        CxProperties properties = new CxProperties();
+        properties.setLeanDeserialization(lean);
+        return new CxConfig(properties).getObjectMapper().readerFor(ScanResults.class);
+    }
+
+    /**
+     * Prints the heap retained by 50k decoded findings, each with a source and a sink node.
+     */
+    public static void main(String[] args) throws Exception {
+        for (int unknownFields : new int[]{0, 2}) {
+            for (boolean lean : new boolean[]{false, true}) {
+                byte[] json = ScanResultsFixture.json(50000, unknownFields);
+                ObjectReader reader = newReader(lean);
+                long before = usedHeap();
+                ScanResults results = reader.readValue(json);
+                long after = usedHeap();
+                System.out.printf("unknown fields %d, lean %-5b: %.1f MB retained by %d findings%n",
+                        unknownFields, lean, (after - before) / 1024.0 / 1024.0, results.getSast().size());
+            }
+        }
+    }
+
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
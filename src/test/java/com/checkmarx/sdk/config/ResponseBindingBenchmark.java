@@ -0,0 +1,73 @@
+package com.checkmarx.sdk.config;
+
+import com.checkmarx.sdk.dto.od.OdScanResults;
+import com.checkmarx.sdk.dto.od.Scan;
+import com.checkmarx.sdk.dto.od.ScanResults;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes CxGo responses with the mapper of the default JSON converter and with the rest template's
+ * tuned mapper. Run from the test classpath with org.openjdk.jmh.Main.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseBindingBenchmark {
+    @Param({"false", "true"})
+    public boolean tuned;
+
+    private byte[] scanResults;
+    private byte[] odScanResults;
+    private byte[] scan;
+    private ObjectReader scanResultsReader;
+    private ObjectReader odScanResultsReader;
+    private ObjectReader scanReader;
+
+    @Setup
+    public void setUp() throws Exception {
+        scanResults = ScanResultsFixture.json(1000, 0);
+        odScanResults = ScanResultsFixture.odScanResults(1000);
+        scan = ScanResultsFixture.scan();
+        CxProperties properties = new CxProperties();
+        properties.setJacksonAfterburner(tuned);
+        ObjectMapper mapper = tuned
+                ? new CxConfig(properties).getObjectMapper()
+                : Jackson2ObjectMapperBuilder.json().build();
+        scanResultsReader = mapper.readerFor(ScanResults.class);
+        odScanResultsReader = mapper.readerFor(OdScanResults.class);
+        scanReader = mapper.readerFor(Scan.class);
+    }
+
+    @Benchmark
+    public ScanResults scanResults() throws Exception {
+        return scanResultsReader.readValue(scanResults);
+    }
+
+    @Benchmark
+    public OdScanResults odScanResults() throws Exception {
+        return odScanResultsReader.readValue(odScanResults);
+    }
+
+    @Benchmark
+    public Scan scan() throws Exception {
+        return scanReader.readValue(scan);
+    }
+}
@@ -0,0 +1,110 @@
+package com.checkmarx.sdk.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Synthetic CxGo responses shaped like the ones returned by the results and scan endpoints.
+ */
+final class ScanResultsFixture {
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] SEVERITIES = {"HIGH", "MEDIUM", "LOW", "INFO"};
+
+    private ScanResultsFixture() {
+    }
+
+    /**
+     * @param findings number of SAST findings
+     * @param unknownFields fields without a DTO property added to each finding and node
+     */
+    static byte[] json(int findings, int unknownFields) throws Exception {
+        ObjectNode root = MAPPER.createObjectNode();
+        ArrayNode sast = root.putArray("sast");
+        for (int i = 0; i < findings; i++) {
+            ObjectNode finding = sast.addObject();
+            finding.put("id", i);
+            finding.put("type", "VULNERABILITY");
+            finding.put("status", i % 3 == 0 ? "NEW" : "RECURRENT");
+            finding.put("state", 1);
+            finding.put("severity", SEVERITIES[i % SEVERITIES.length]);
+            finding.put("similarity_id", 100000 + i);
+            finding.put("has_notes", false);
+            finding.set("source_node", node(i * 2, "src/main/java/com/example/Controller" + (i % 50) + ".java", unknownFields));
+            finding.set("sink_node", node(i * 2 + 1, "src/main/java/com/example/Repository" + (i % 50) + ".java", unknownFields));
+            finding.put("description", "Untrusted input reaches a database query");
+            finding.put("language_name", "Java");
+            finding.put("vulnerability_type", i % 2 == 0 ? "SQL_Injection" : "Reflected_XSS");
+            finding.put("cwe", i % 2 == 0 ? "89" : "79");
+            finding.put("created_at", "2020-06-01T10:15:30Z");
+            finding.put("updated_at", "2020-06-02T10:15:30Z");
+            addUnknownFields(finding, unknownFields);
+        }
+        return MAPPER.writeValueAsBytes(root);
+    }
+
+    /**
+     * @param items number of items on the results page
+     */
+    static byte[] odScanResults(int items) throws Exception {
+        ObjectNode root = MAPPER.createObjectNode();
+        root.putArray("errors");
+        ObjectNode data = root.putObject("data");
+        ArrayNode list = data.putArray("items");
+        for (int i = 0; i < items; i++) {
+            ObjectNode item = list.addObject();
+            item.put("id", i);
+            item.put("title", i % 2 == 0 ? "SQL_Injection" : "Reflected_XSS");
+            item.put("queryId", 500 + i % 20);
+            item.put("severity", SEVERITIES[i % SEVERITIES.length]);
+            item.put("status", i % 3 == 0 ? "NEW" : "RECURRENT");
+            item.put("state", 1);
+            item.put("sourceNode", "input");
+            item.put("sourceFile", "src/main/java/com/example/Controller" + (i % 50) + ".java");
+            item.put("sinkNode", "query");
+            item.put("sinkFile", "src/main/java/com/example/Repository" + (i % 50) + ".java");
+            item.put("similarityId", String.valueOf(100000 + i));
+            item.put("hasNotes", false);
+        }
+        data.put("totalCount", items);
+        ObjectNode pagination = data.putObject("pagination");
+        pagination.put("currentPage", "1");
+        pagination.put("pageSize", String.valueOf(items));
+        return MAPPER.writeValueAsBytes(root);
+    }
+
+    static byte[] scan() throws Exception {
+        ObjectNode scan = MAPPER.createObjectNode();
+        scan.put("id", 1234);
+        scan.put("status", "Running");
+        scan.put("progress", 40);
+        scan.putArray("engine_types").add("sast").add("sca");
+        scan.put("risk_level", "High");
+        scan.put("project_id", 10);
+        scan.put("application_id", 20);
+        scan.put("business_unit_id", 30);
+        ObjectNode engines = scan.putObject("engines");
+        engines.putObject("sast").put("status", "Running");
+        engines.putObject("sca").put("status", "Done");
+        return MAPPER.writeValueAsBytes(scan);
+    }
+
+    private static ObjectNode node(int id, String filePath, int unknownFields) {
+        ObjectNode node = MAPPER.createObjectNode();
+        node.put("id", id);
+        node.put("name", "input");
+        node.put("line", 10 + id % 400);
+        node.put("column", 5 + id % 40);
+        node.put("length", 5);
+        node.put("file_name", filePath.substring(filePath.lastIndexOf('/') + 1));
+        node.put("file_path", filePath);
+        addUnknownFields(node, unknownFields);
+        return node;
+    }
+
+    private static void addUnknownFields(ObjectNode node, int count) {
+        for (int i = 0; i < count; i++) {
+            node.put("extra_" + i, "value " + i);
+        }
+    }
+}
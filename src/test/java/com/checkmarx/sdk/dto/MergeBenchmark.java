@@ -0,0 +1,128 @@
+package com.checkmarx.sdk.dto;
+
+import com.checkmarx.sdk.dto.ast.SCAResults;
+import com.checkmarx.sdk.dto.ast.Summary;
+import com.cx.restclient.ast.dto.sca.AstScaResults;
+import com.cx.restclient.ast.dto.sca.report.AstScaSummaryResults;
+import com.cx.restclient.ast.dto.sca.report.Finding;
+import com.cx.restclient.ast.dto.sca.report.Package;
+import org.modelmapper.Conditions;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Merges SCA results into SAST results and converts common client SCA results, with the shared
+ * ModelMapper instances and with a new ModelMapper per call as before. Run from the test classpath
+ * with org.openjdk.jmh.Main.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MergeBenchmark {
+    private static final ModelMapper CONVERSION_MAPPER = new ModelMapper();
+
+    /// SCA findings; each scan has twice as many packages
+    @Param({"50", "500"})
+    public int findings;
+
+    @Param({"false", "true"})
+    public boolean shared;
+
+    private ScanResults scaResults;
+    private AstScaResults astScaResults;
+
+    @Setup
+    public void setUp() {
+        List<Finding> findingList = new ArrayList<>();
+        List<Package> packageList = new ArrayList<>();
+        List<ScanResults.XIssue> issues = new ArrayList<>();
+        for (int i = 0; i < findings * 2; i++) {
+            Package pkg = new Package();
+            pkg.setId("package-" + i + "-1.0." + i);
+            pkg.setName("package-" + i);
+            pkg.setVersion("1.0." + i);
+            pkg.setLicenses(new ArrayList<>(Collections.singletonList("MIT")));
+            pkg.setLocations(new ArrayList<>(Collections.singletonList("package.json")));
+            pkg.setRiskScore(i % 10);
+            packageList.add(pkg);
+        }
+        for (int i = 0; i < findings; i++) {
+            Finding finding = new Finding();
+            finding.setId("CVE-2020-" + i);
+            finding.setCveName("CVE-2020-" + i);
+            finding.setScore(i % 10);
+            finding.setDescription("Prototype pollution in package-" + i);
+            finding.setPackageId(packageList.get(i * 2).getId());
+            finding.setSimilarityId(String.valueOf(i));
+            finding.setReferences(new ArrayList<>(Collections.singletonList("https://nvd.nist.gov/vuln/detail/CVE-2020-" + i)));
+            findingList.add(finding);
+            issues.add(ScanResults.XIssue.builder()
+                    .vulnerability("CVE-2020-" + i)
+                    .file("package.json")
+                    .scaDetails(new ArrayList<>(Collections.singletonList(ScanResults.ScaDetails.builder()
+                            .finding(finding)
+                            .vulnerabilityPackage(packageList.get(i * 2))
+                            .build())))
+                    .build());
+        }
+
+        SCAResults sca = new SCAResults();
+        sca.setScanId("sca-scan");
+        sca.setFindings(findingList);
+        sca.setPackages(packageList);
+        sca.setSummary(new Summary());
+        sca.getSummary().setFindingCounts(new HashMap<>());
+        scaResults = ScanResults.builder()
+                .projectId("1")
+                .xIssues(issues)
+                .scaResults(sca)
+                .build();
+
+        astScaResults = new AstScaResults();
+        astScaResults.setScanId("sca-scan");
+        astScaResults.setFindings(findingList);
+        astScaResults.setPackages(packageList);
+        astScaResults.setSummary(new AstScaSummaryResults());
+    }
+
+    @Benchmark
+    public ScanResults merge() {
+        ScanResults results = ScanResults.builder()
+                .projectId("1")
+                .project("project")
+                .build();
+        if (shared) {
+            results.mergeWith(scaResults);
+        } else {
+            ModelMapper mapper = new ModelMapper();
+            mapper.getConfiguration().setPropertyCondition(Conditions.isNotNull());
+            mapper.map(scaResults, results);
+        }
+        return results;
+    }
+
+    @Benchmark
+    public SCAResults convert() {
+        ModelMapper mapper = shared ? CONVERSION_MAPPER : new ModelMapper();
+        return mapper.map(astScaResults, SCAResults.class);
+    }
+}
@@ -0,0 +1,180 @@
+package com.checkmarx.sdk.dto;
+
+import com.checkmarx.sdk.dto.ast.SCAResults;
+import com.checkmarx.sdk.dto.ast.Summary;
+import com.cx.restclient.ast.dto.sca.report.Finding;
+import com.cx.restclient.ast.dto.sca.report.Package;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+public class ScanResultsTest {
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void detailsMaps_matchHashMaps() throws Exception {
+        ScanResults.ResultDetails details = newResultDetails();
+        Map<String, Object> expected = newResultMap();
+
+        Assert.assertEquals(expected, details);
+        Assert.assertEquals(details, expected);
+        Assert.assertEquals(expected.hashCode(), details.hashCode());
+        Assert.assertEquals(expected.toString(), details.toString());
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(details));
+        Assert.assertEquals("10", details.getSource().get("line"));
+        Assert.assertTrue(details.containsKey("state"));
+        Assert.assertFalse(details.containsKey("line"));
+    }
+
+    @Test
+    public void detailsMaps_areMutableLikeHashMaps() throws Exception {
+        ScanResults.ResultDetails details = newResultDetails();
+        Map<String, Object> expected = newResultMap();
+
+        Assert.assertEquals(expected.put("state", 1), details.put("state", 1));
+        Assert.assertEquals(expected.remove("sink"), details.remove("sink"));
+        expected.put("comment", "reviewed");
+        details.put("comment", "reviewed");
+        Assert.assertEquals(expected, details);
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(details));
+        Assert.assertEquals(Integer.valueOf(1), details.getState());
+        Assert.assertNull(details.getSink());
+        Assert.assertEquals(10, details.getSource().getLine());
+
+        ScanResults.NodeDetails node = new ScanResults.NodeDetails("a.java", 10, 5, "input");
+        Iterator<Map.Entry<String, String>> iterator = node.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<String, String> entry = iterator.next();
+            if (entry.getKey().equals("column")) {
+                iterator.remove();
+            } else if (entry.getKey().equals("object")) {
+                entry.setValue("output");
+            }
+        }
+        Map<String, String> expectedNode = new HashMap<>();
+        expectedNode.put("file", "a.java");
+        expectedNode.put("line", "10");
+        expectedNode.put("object", "output");
+        Assert.assertEquals(expectedNode, node);
+        Assert.assertEquals("output", node.getObject());
+        Assert.assertEquals(10, node.getLine());
+        Assert.assertEquals(0, node.getColumn());
+
+        node.clear();
+        Assert.assertTrue(node.isEmpty());
+    }
+
+    @Test
+    public void mergeWith_matchesHashMaps() throws Exception {
+        ScanResults merged = newResults(Collections.singletonList(newResultDetails()));
+        merged.mergeWith(newResults(new ArrayList<>(Collections.singletonList(newResultDetails()))));
+        ScanResults expected = newResults(Collections.singletonList(newResultMap()));
+        expected.mergeWith(newResults(new ArrayList<>(Collections.singletonList(newResultMap()))));
+
+        Assert.assertEquals(mapper.writeValueAsString(expected), mapper.writeValueAsString(merged));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void copy_isDeep() throws Exception {
+        Finding finding = new Finding();
+        finding.setId("CVE-2020-1");
+        finding.setPackageId("lodash-4.17.15");
+        Package pkg = new Package();
+        pkg.setId("lodash-4.17.15");
+        pkg.setLocations(new ArrayList<>(Collections.singletonList("package.json")));
+        SCAResults scaResults = new SCAResults();
+        scaResults.setFindings(new ArrayList<>(Collections.singletonList(finding)));
+        scaResults.setPackages(new ArrayList<>(Collections.singletonList(pkg)));
+        scaResults.setSummary(new Summary());
+        scaResults.getSummary().setFindingCounts(new HashMap<>());
+        ScanResults.XIssue issue = ScanResults.XIssue.builder()
+                .vulnerability("CVE-2020-1")
+                .scaDetails(new ArrayList<>(Collections.singletonList(ScanResults.ScaDetails.builder()
+                        .finding(finding)
+                        .vulnerabilityPackage(pkg)
+                        .build())))
+                .osaDetails(new ArrayList<>(Collections.singletonList(ScanResults.OsaDetails.builder()
+                        .cve("CVE-2020-1")
+                        .build())))
+                .build();
+        ScanResults results = ScanResults.builder()
+                .xIssues(new ArrayList<>(Arrays.asList(issue, newResults(Collections.singletonList(newResultDetails())).getXIssues().get(0))))
+                .scaResults(scaResults)
+                .build();
+        String json = mapper.writeValueAsString(results);
+
+        ScanResults copy = results.copy();
+        Assert.assertEquals(json, mapper.writeValueAsString(copy));
+        ScanResults.XIssue issueCopy = copy.getXIssues().get(0);
+        Assert.assertSame(copy.getScaResults().getFindings().get(0), issueCopy.getScaDetails().get(0).getFinding());
+        Assert.assertSame(copy.getScaResults().getPackages().get(0), issueCopy.getScaDetails().get(0).getVulnerabilityPackage());
+
+        issueCopy.getScaDetails().get(0).getFinding().setIgnored(true);
+        issueCopy.getScaDetails().get(0).getVulnerabilityPackage().getLocations().add("yarn.lock");
+        issueCopy.getOsaDetails().get(0).setCve("CVE-2020-2");
+        copy.getScaResults().getSummary().getFindingCounts().put(Filter.Severity.HIGH, 1);
+        Assert.assertEquals(json, mapper.writeValueAsString(results));
+
+        List<Map<String, Object>> resultList = getResultList(copy.getXIssues().get(1));
+        resultList.get(0).put("state", 1);
+        ((Map<String, String>) resultList.get(0).get("source")).put("line", "99");
+        resultList.add(newResultMap());
+        Assert.assertEquals(json, mapper.writeValueAsString(results));
+        Assert.assertEquals(json, mapper.writeValueAsString(results.copy()));
+        Assert.assertEquals(Integer.valueOf(0), ((ScanResults.ResultDetails) getResultList(results.getXIssues().get(1)).get(0)).getState());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Map<String, Object>> getResultList(ScanResults.XIssue issue) {
+        return (List<Map<String, Object>>) issue.getAdditionalDetails().get("results");
+    }
+
+    private static ScanResults newResults(List<Map<String, Object>> resultList) {
+        Map<String, Object> issueDetails = new HashMap<>();
+        issueDetails.put("results", resultList);
+        ScanResults.XIssue issue = ScanResults.XIssue.builder()
+                .vulnerability("SQL_Injection")
+                .file("a.java")
+                .additionalDetails(issueDetails)
+                .build();
+        List<ScanResults.XIssue> issues = new ArrayList<>();
+        issues.add(issue);
+        return ScanResults.builder()
+                .projectId("1")
+                .xIssues(issues)
+                .build();
+    }
+
+    private static ScanResults.ResultDetails newResultDetails() {
+        return new ScanResults.ResultDetails(
+                new ScanResults.NodeDetails("a.java", 10, 5, "input"),
+                new ScanResults.NodeDetails("b.java", 20, 7, "query"),
+                0);
+    }
+
+    private static Map<String, Object> newResultMap() {
+        Map<String, Object> result = new HashMap<>();
+        result.put("source", newNodeMap("a.java", "10", "5", "input"));
+        result.put("sink", newNodeMap("b.java", "20", "7", "query"));
+        result.put("state", 0);
+        return result;
+    }
+
+    private static Map<String, String> newNodeMap(String file, String line, String column, String object) {
+        Map<String, String> node = new HashMap<>();
+        node.put("file", file);
+        node.put("line", line);
+        node.put("column", column);
+        node.put("object", object);
+        return node;
+    }
+}
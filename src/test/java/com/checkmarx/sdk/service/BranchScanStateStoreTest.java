@@ -0,0 +1,54 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.util.Collections;
+
+public class BranchScanStateStoreTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void putIncrementalScan_keepsLiveChains() throws Exception {
+        BranchScanStateStore store = newStore();
+        // Full scan 1, incremental scans 2 and 3 on top of it
+        store.putIncrementalScan(2, newIncrementalScan(1, 0));
+        store.putIncrementalScan(3, newIncrementalScan(2, 1));
+        BranchScanStateStore.BranchScanState state = new BranchScanStateStore.BranchScanState("c3", 3, 10, 2);
+        store.put("team", "project", "main", state);
+        // Superseded incremental scan of a branch that moved on to scan 5
+        store.putIncrementalScan(4, newIncrementalScan(1, 0));
+        store.put("team", "project", "feature", new BranchScanStateStore.BranchScanState("c5", 5, 10, 0));
+
+        for (int scanId = 100; scanId < 1100; scanId++) {
+            store.putIncrementalScan(scanId, newIncrementalScan(1, 0));
+        }
+
+        Assert.assertNotNull(store.getIncrementalScan(2));
+        Assert.assertNotNull(store.getIncrementalScan(3));
+        Assert.assertNull(store.getIncrementalScan(4));
+        Assert.assertNull(store.getIncrementalScan(100));
+        Assert.assertNull(store.getIncrementalScan(101));
+        Assert.assertNotNull(store.getIncrementalScan(102));
+
+        BranchScanStateStore reloaded = newStore();
+        Assert.assertEquals(Integer.valueOf(2), reloaded.getIncrementalScan(3).getBaseScanId());
+        Assert.assertEquals(1, reloaded.getIncrementalScan(3).getBaseIncrementalScans());
+        Assert.assertEquals(Integer.valueOf(3), reloaded.get("team", "project", "main").getScanId());
+    }
+
+    private BranchScanStateStore newStore() {
+        CxProperties properties = new CxProperties();
+        properties.setStatePath(folder.getRoot().getAbsolutePath());
+        return new BranchScanStateStore(properties);
+    }
+
+    private static BranchScanStateStore.IncrementalScan newIncrementalScan(Integer baseScanId, int baseIncrementalScans) {
+        return new BranchScanStateStore.IncrementalScan(baseScanId, Collections.singletonList("src/a.java"),
+                baseIncrementalScans);
+    }
+}
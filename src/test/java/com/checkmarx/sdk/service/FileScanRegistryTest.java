@@ -0,0 +1,83 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.cx.CxScanParams;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileScanRegistryTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void reload_replaysRegisteredAndCompletedScans() throws Exception {
+        FileScanRegistry registry = newRegistry();
+        registry.register(newRecord(1));
+        registry.register(newRecord(2));
+        registry.complete(1);
+        registry.complete(3);
+
+        FileScanRegistry reloaded = newRegistry();
+        Assert.assertNull(reloaded.get(1));
+        ScanRegistry.ScanRecord record = reloaded.get(2);
+        Assert.assertEquals("main", record.getBranch());
+        Assert.assertEquals(Integer.valueOf(10), record.getProjectId());
+        Assert.assertEquals(2000L, record.getSubmittedAt());
+        Assert.assertEquals(1, reloaded.getInFlight().size());
+        Assert.assertEquals(3, Files.readAllLines(getLogFile()).size());
+    }
+
+    @Test
+    public void reload_skipsPartialLastLine() throws Exception {
+        FileScanRegistry registry = newRegistry();
+        registry.register(newRecord(1));
+        Files.write(getLogFile(), "{\"op\":\"REGISTER\",\"scanId\":2,\"rec".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+
+        FileScanRegistry reloaded = newRegistry();
+        Assert.assertNotNull(reloaded.get(1));
+        Assert.assertNull(reloaded.get(2));
+        Assert.assertEquals(1, reloaded.getInFlight().size());
+    }
+
+    @Test
+    public void complete_compactsLogOnceCompletedEntriesDominate() throws Exception {
+        FileScanRegistry registry = newRegistry();
+        for (int scanId = 1; scanId <= 60; scanId++) {
+            registry.register(newRecord(scanId));
+        }
+        for (int scanId = 1; scanId < 60; scanId++) {
+            registry.complete(scanId);
+        }
+
+        // 119 entries were appended, the log was rewritten with the 19 scans in flight at 101 entries
+        Assert.assertEquals(37, Files.readAllLines(getLogFile()).size());
+        FileScanRegistry reloaded = newRegistry();
+        Assert.assertEquals(1, reloaded.getInFlight().size());
+        Assert.assertNotNull(reloaded.get(60));
+        registry.register(newRecord(61));
+        Assert.assertEquals(2, newRegistry().getInFlight().size());
+    }
+
+    private FileScanRegistry newRegistry() {
+        return new FileScanRegistry(folder.getRoot().getAbsolutePath());
+    }
+
+    private Path getLogFile() {
+        return folder.getRoot().toPath().resolve("scan-registry.log");
+    }
+
+    private static ScanRegistry.ScanRecord newRecord(int scanId) {
+        CxScanParams params = new CxScanParams();
+        params.setProjectId(10);
+        params.setProjectName("project");
+        params.setBranch("main");
+        return new ScanRegistry.ScanRecord(scanId, params, scanId * 1000L);
+    }
+}
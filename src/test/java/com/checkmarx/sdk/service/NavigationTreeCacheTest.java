@@ -0,0 +1,132 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.OdNavigationTree;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class NavigationTreeCacheTest {
+    private static final int TTL = 300;
+    private static final String COMPANY = "\\CxServer\\SP\\Company";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final AtomicInteger fetches = new AtomicInteger();
+    private volatile int companyId = 3;
+    private NavigationTreeCache cache;
+
+    @After
+    public void shutdown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    public void getTeamId_servesHitsFromTheCachedTree() throws Exception {
+        cache = newCache(false);
+
+        Assert.assertEquals(Integer.valueOf(3), cache.getTeamId(COMPANY));
+        Assert.assertEquals(Integer.valueOf(2), cache.getTeamId("\\CxServer\\SP"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getTeamId("\\CxServer"));
+        Assert.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void getTeamId_missRefreshesTreeOnlyOnceItIsOldEnough() throws Exception {
+        cache = newCache(false);
+        Assert.assertNull(cache.getTeamId("\\CxServer\\SP\\Missing"));
+        Assert.assertNull(cache.getTeamId("CxServer"));
+        Assert.assertEquals(1, fetches.get());
+
+        writeSnapshot(TimeUnit.SECONDS.toMillis(20));
+        cache = newCache(true);
+        Assert.assertNull(cache.getTeamId("\\CxServer\\SP\\Missing"));
+        Assert.assertEquals(2, fetches.get());
+    }
+
+    @Test
+    public void getTeamId_servesStaleTreeWhileRefreshing() throws Exception {
+        writeSnapshot(TimeUnit.SECONDS.toMillis(TTL * 3 / 2));
+        companyId = 4;
+        cache = newCache(true);
+
+        Assert.assertEquals(Integer.valueOf(3), cache.getTeamId(COMPANY));
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Integer.valueOf(4).equals(cache.getTeamId(COMPANY)) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(Integer.valueOf(4), cache.getTeamId(COMPANY));
+        Assert.assertEquals(1, fetches.get());
+    }
+
+    @Test
+    public void getTeamId_waitsForTreeBeyondTwiceTheTtl() throws Exception {
+        writeSnapshot(TimeUnit.SECONDS.toMillis(TTL * 3));
+        companyId = 4;
+        cache = newCache(true);
+
+        Assert.assertEquals(Integer.valueOf(4), cache.getTeamId(COMPANY));
+        Assert.assertEquals(1, fetches.get());
+        Assert.assertTrue(new File(folder.getRoot(), "navigation-tree.json").exists());
+    }
+
+    @Test
+    public void invalidate_fetchesTreeOnNextLookup() throws Exception {
+        cache = newCache(false);
+        Assert.assertEquals(Integer.valueOf(3), cache.getTeamId(COMPANY));
+
+        companyId = 4;
+        cache.invalidate();
+
+        Assert.assertEquals(Integer.valueOf(4), cache.getTeamId(COMPANY));
+        Assert.assertEquals(2, fetches.get());
+    }
+
+    private NavigationTreeCache newCache(boolean snapshot) {
+        CxProperties properties = new CxProperties();
+        properties.setNavigationTreeTtl(TTL);
+        properties.setNavigationTreeSnapshot(snapshot);
+        properties.setStatePath(folder.getRoot().getAbsolutePath());
+        return new NavigationTreeCache(properties, () -> {
+            fetches.incrementAndGet();
+            return newTree(companyId);
+        });
+    }
+
+    private void writeSnapshot(long age) throws Exception {
+        NavigationTreeCache.Snapshot snapshot = new NavigationTreeCache.Snapshot(
+                NavigationTreeCache.index(newTree(companyId)), System.currentTimeMillis() - age);
+        new ObjectMapper().writeValue(new File(folder.getRoot(), "navigation-tree.json"), snapshot);
+    }
+
+    private static OdNavigationTree newTree(int companyId) {
+        Map<String, Object> company = newNode(companyId, "Company", Collections.emptyList());
+        Map<String, Object> sp = newNode(2, "SP", Collections.singletonList(company));
+        Map<String, Object> server = newNode(1, "CxServer", Collections.singletonList(sp));
+        OdNavigationTree tree = new OdNavigationTree();
+        tree.setAdditionalProperty("data", Collections.singletonMap("tree", Collections.singletonList(server)));
+        return tree;
+    }
+
+    private static Map<String, Object> newNode(int id, String title, List<Map<String, Object>> children) {
+        Map<String, Object> node = new HashMap<>();
+        node.put("id", id);
+        node.put("title", title);
+        node.put("children", children);
+        return node;
+    }
+}
@@ -0,0 +1,145 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.OdProjectListDataItem;
+import com.google.common.base.Ticker;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ProjectIndexCacheTest {
+    private final AtomicLong nanos = new AtomicLong();
+    private final Ticker ticker = new Ticker() {
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    };
+    private final List<OdProjectListDataItem> projects = new ArrayList<>();
+    private final AtomicInteger listings = new AtomicInteger();
+
+    @Test
+    public void getProjectId_servesHitsFromTheIndex() {
+        ProjectIndexCache cache = newCache(false, (appId, name) -> Collections.emptyList());
+        projects.add(newProject(1, "first"));
+        projects.add(newProject(2, "second"));
+
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        Assert.assertEquals(Integer.valueOf(2), cache.getProjectId("10", "second"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+
+        Assert.assertEquals(1, listings.get());
+        Assert.assertEquals(2, cache.getLookupsAvoided());
+    }
+
+    @Test
+    public void getProjectId_listsProjectsOnMiss() {
+        ProjectIndexCache cache = newCache(false, (appId, name) -> Collections.emptyList());
+        projects.add(newProject(1, "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+
+        projects.add(newProject(2, "created"));
+        Assert.assertEquals(Integer.valueOf(2), cache.getProjectId("10", "created"));
+        Assert.assertNull(cache.getProjectId("10", "missing"));
+
+        Assert.assertEquals(3, listings.get());
+        Assert.assertEquals(3, cache.getRemoteLookups());
+    }
+
+    @Test
+    public void getProjectId_looksUpMissesByName() {
+        AtomicInteger finds = new AtomicInteger();
+        ProjectIndexCache cache = newCache(true, (appId, name) -> {
+            finds.incrementAndGet();
+            return name.equals("first") ? Collections.singletonList(newProject(1, "first")) : Collections.emptyList();
+        });
+
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        Assert.assertNull(cache.getProjectId("10", "missing"));
+
+        Assert.assertEquals(2, finds.get());
+        Assert.assertEquals(0, listings.get());
+    }
+
+    @Test
+    public void getProjectId_listsProjectsWhenNameCriteriaAreIgnored() {
+        AtomicInteger finds = new AtomicInteger();
+        ProjectIndexCache cache = newCache(true, (appId, name) -> {
+            finds.incrementAndGet();
+            return Collections.singletonList(newProject(2, "other"));
+        });
+        projects.add(newProject(1, "first"));
+        projects.add(newProject(2, "other"));
+
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        Assert.assertNull(cache.getProjectId("10", "missing"));
+
+        Assert.assertEquals(1, finds.get());
+        Assert.assertEquals(2, listings.get());
+    }
+
+    @Test
+    public void getProjectId_refreshesStaleIndex() {
+        ProjectIndexCache cache = newCache(false, (appId, name) -> Collections.emptyList());
+        projects.add(newProject(1, "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+
+        projects.set(0, newProject(3, "first"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(59));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        Assert.assertEquals(Integer.valueOf(3), cache.getProjectId("10", "first"));
+
+        Assert.assertEquals(2, listings.get());
+    }
+
+    @Test
+    public void invalidate_dropsTheIndexOfTheApplication() {
+        ProjectIndexCache cache = newCache(false, (appId, name) -> Collections.emptyList());
+        projects.add(newProject(1, "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("10", "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("20", "first"));
+
+        projects.set(0, newProject(3, "first"));
+        cache.invalidate("10");
+        cache.invalidate(null);
+
+        Assert.assertEquals(Integer.valueOf(3), cache.getProjectId("10", "first"));
+        Assert.assertEquals(Integer.valueOf(1), cache.getProjectId("20", "first"));
+        Assert.assertEquals(3, listings.get());
+    }
+
+    @Test
+    public void recordProject_addsToTheIndex() {
+        ProjectIndexCache cache = newCache(false, (appId, name) -> Collections.emptyList());
+
+        cache.recordProject("10", "created", 5);
+
+        Assert.assertEquals(Integer.valueOf(5), cache.getProjectId("10", "created"));
+        Assert.assertEquals(0, listings.get());
+    }
+
+    private ProjectIndexCache newCache(boolean nameLookup, ProjectIndexCache.ProjectFinder finder) {
+        CxProperties properties = new CxProperties();
+        properties.setProjectIndexTtl(60);
+        properties.setProjectNameLookup(nameLookup);
+        return new ProjectIndexCache(properties, appId -> {
+            listings.incrementAndGet();
+            return new ArrayList<>(projects);
+        }, finder, ticker);
+    }
+
+    private static OdProjectListDataItem newProject(int id, String name) {
+        OdProjectListDataItem item = new OdProjectListDataItem();
+        item.setId(id);
+        item.setName(name);
+        return item;
+    }
+}
@@ -0,0 +1,53 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.ScanResults;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ReportCacheTest {
+
+    @Test
+    public void get_cachesReportsOfFinishedScans() throws Exception {
+        ReportCache cache = new ReportCache(10, 60);
+        AtomicInteger builds = new AtomicInteger();
+        ReportCache.ReportBuilder builder = () -> {
+            builds.incrementAndGet();
+            return new ReportCache.Report(newReport(), "Completed");
+        };
+
+        ScanResults first = cache.get(1, null, builder);
+        first.getXIssues().add(ScanResults.XIssue.builder().vulnerability("added").build());
+        ScanResults second = cache.get(1, null, builder);
+
+        Assert.assertEquals(1, builds.get());
+        Assert.assertEquals(1, cache.getHits());
+        Assert.assertTrue(second.getXIssues().isEmpty());
+        Assert.assertNotSame(first, second);
+    }
+
+    @Test
+    public void get_buildsReportsOfRunningScansEveryTime() throws Exception {
+        ReportCache cache = new ReportCache(10, 60);
+        AtomicInteger builds = new AtomicInteger();
+        ReportCache.ReportBuilder builder = () -> {
+            builds.incrementAndGet();
+            return new ReportCache.Report(newReport(), "Processing");
+        };
+
+        cache.get(1, null, builder);
+        cache.get(1, null, builder);
+
+        Assert.assertEquals(2, builds.get());
+        Assert.assertEquals(0, cache.getHits());
+    }
+
+    private static ScanResults newReport() {
+        return ScanResults.builder()
+                .projectId("1")
+                .xIssues(new ArrayList<>())
+                .build();
+    }
+}
@@ -0,0 +1,64 @@
+package com.checkmarx.sdk.service;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+public class ScanPollingPolicyTest {
+
+    @Test
+    public void nextDelay_backsOffWithElapsedTime() {
+        ScanPollingPolicy policy = new ScanPollingPolicy(1000, 60000, 0);
+
+        Assert.assertEquals(1000, policy.nextDelay(null, 0, null));
+        Assert.assertEquals(1000, policy.nextDelay(null, 2000, null));
+        Assert.assertEquals(10000, policy.nextDelay(null, 40000, null));
+        Assert.assertEquals(60000, policy.nextDelay(null, 1000000, null));
+        long previous = 0;
+        for (long elapsed = 0; elapsed < 600000; elapsed += 10000) {
+            long delay = policy.nextDelay(null, elapsed, null);
+            Assert.assertTrue(delay >= previous);
+            previous = delay;
+        }
+    }
+
+    @Test
+    public void nextDelay_aimsAtCompletionPredictedFromProgress() {
+        ScanPollingPolicy policy = new ScanPollingPolicy(1000, 60000, 0);
+
+        // Half done after 10 s: 10 s remaining, poll half way there
+        Assert.assertEquals(5000, policy.nextDelay(null, 10000, 50));
+        // 10% done after 10 s: 90 s remaining, but never wait longer than the elapsed time
+        Assert.assertEquals(10000, policy.nextDelay(null, 10000, 10));
+        // No usable progress falls back to the backoff
+        Assert.assertEquals(2500, policy.nextDelay(null, 10000, 100));
+    }
+
+    @Test
+    public void nextDelay_aimsAtCompletionPredictedFromEarlierScans() {
+        ScanPollingPolicy policy = new ScanPollingPolicy(1000, 60000, 0);
+        policy.recordDuration(1, 100000);
+        policy.recordDuration(1, 200000);
+
+        Assert.assertEquals(Long.valueOf(130000), policy.getAverageDuration(1));
+        Assert.assertEquals(20000, policy.nextDelay(1, 20000, null));
+        Assert.assertEquals(5000, policy.nextDelay(1, 120000, null));
+        // Overdue scans back off
+        Assert.assertEquals(50000, policy.nextDelay(1, 200000, null));
+        Assert.assertNull(policy.getAverageDuration(2));
+    }
+
+    @Test
+    public void nextDelay_appliesJitterWithinBounds() {
+        ScanPollingPolicy policy = new ScanPollingPolicy(1000, 60000, 0.1);
+        Set<Long> delays = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            long delay = policy.nextDelay(null, 40000, null);
+            Assert.assertTrue(delay >= 9000 && delay <= 11000);
+            delays.add(delay);
+        }
+        Assert.assertTrue(delays.size() > 1);
+    }
+}
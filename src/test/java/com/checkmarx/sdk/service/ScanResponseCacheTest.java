@@ -0,0 +1,176 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.dto.od.Scan;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+public class ScanResponseCacheTest {
+    private static final int PAYLOAD = 1000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void put_roundTripsCompressedResponses() throws Exception {
+        ScanResponseCache cache = newCache(Long.MAX_VALUE);
+        cache.putScan(newScan(1, "Completed"));
+        cache.put(1, ScanResponseCache.RESULTS, Collections.singletonMap("sast", "finding"));
+
+        Assert.assertEquals("Completed", cache.getScan(1).getStatus());
+        Map<String, String> results = cache.get(1, ScanResponseCache.RESULTS, new TypeReference<Map<String, String>>() {});
+        Assert.assertEquals(Collections.singletonMap("sast", "finding"), results);
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(getScanDirectory(1).resolve("results.json.gz")))) {
+            Assert.assertEquals(Collections.singletonMap("sast", "finding"), mapper.readValue(in, Map.class));
+        }
+        Assert.assertNull(cache.getScan(2));
+        Assert.assertNull(cache.open(1, ScanResponseCache.RESULT_ITEMS));
+    }
+
+    @Test
+    public void put_ignoresUnfinishedScans() {
+        ScanResponseCache cache = newCache(Long.MAX_VALUE);
+        cache.putScan(newScan(1, "Processing"));
+
+        Assert.assertFalse(cache.contains(1));
+        Assert.assertFalse(cache.put(1, ScanResponseCache.RESULTS, out -> out.write(1)));
+        Assert.assertNull(cache.getScan(1));
+    }
+
+    @Test
+    public void eviction_removesLeastRecentlyReadScan() throws Exception {
+        ScanResponseCache cache = newCache(3 * PAYLOAD);
+        putScanWithPayload(cache, 1);
+        putScanWithPayload(cache, 2);
+        Assert.assertNotNull(cache.getScan(1));
+
+        putScanWithPayload(cache, 3);
+
+        Assert.assertTrue(cache.contains(1));
+        Assert.assertFalse(cache.contains(2));
+        Assert.assertTrue(cache.contains(3));
+        Assert.assertEquals(getSizeOnDisk(), cache.getTotalSize());
+    }
+
+    @Test
+    public void eviction_keepsReadOrderAcrossRestarts() throws Exception {
+        ScanResponseCache cache = newCache(3 * PAYLOAD);
+        putScanWithPayload(cache, 1);
+        putScanWithPayload(cache, 2);
+        long now = System.currentTimeMillis();
+        Files.setLastModifiedTime(getScanDirectory(1), FileTime.fromMillis(now - 20000));
+        Files.setLastModifiedTime(getScanDirectory(2), FileTime.fromMillis(now - 10000));
+
+        Assert.assertNotNull(newCache(3 * PAYLOAD).getScan(1));
+        cache = newCache(3 * PAYLOAD);
+        putScanWithPayload(cache, 3);
+
+        Assert.assertTrue(cache.contains(1));
+        Assert.assertFalse(cache.contains(2));
+        Assert.assertTrue(cache.contains(3));
+    }
+
+    @Test
+    public void get_dropsCorruptAndPartialFiles() throws Exception {
+        ScanResponseCache cache = newCache(Long.MAX_VALUE);
+        cache.putScan(newScan(1, "Completed"));
+        putPayload(cache, 1);
+        Path results = getScanDirectory(1).resolve("results.json.gz");
+        Files.write(results, "not gzip".getBytes());
+        Path partial = getScanDirectory(1).resolve("results123.tmp");
+        Files.write(partial, new byte[PAYLOAD]);
+
+        Assert.assertNull(cache.get(1, ScanResponseCache.RESULTS, new TypeReference<Map<String, String>>() {}));
+        Assert.assertFalse(Files.exists(results));
+
+        cache = newCache(Long.MAX_VALUE);
+        Assert.assertNotNull(cache.getScan(1));
+        Assert.assertFalse(Files.exists(partial));
+        Assert.assertEquals(getSizeOnDisk(), cache.getTotalSize());
+    }
+
+    @Test
+    public void put_handlesConcurrentWriters() throws Exception {
+        ScanResponseCache cache = newCache(Long.MAX_VALUE);
+        cache.putScan(newScan(1, "Completed"));
+        cache.putScan(newScan(2, "Completed"));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int value = i;
+                futures.add(executor.submit(() -> {
+                    cache.put(value % 2 + 1, ScanResponseCache.RESULTS, Collections.singletonMap("value", value));
+                    Map<String, Integer> read = cache.get(value % 2 + 1, ScanResponseCache.RESULTS,
+                            new TypeReference<Map<String, Integer>>() {});
+                    return read != null && read.get("value") % 2 == value % 2;
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                Assert.assertTrue(future.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (Stream<Path> files = Files.walk(folder.getRoot().toPath())) {
+            Assert.assertFalse(files.anyMatch(file -> file.toString().endsWith(".tmp")));
+        }
+        Assert.assertEquals(getSizeOnDisk(), cache.getTotalSize());
+    }
+
+    private ScanResponseCache newCache(long maxSize) {
+        return new ScanResponseCache(folder.getRoot().getAbsolutePath(), maxSize, mapper);
+    }
+
+    private static void putScanWithPayload(ScanResponseCache cache, int scanId) {
+        cache.putScan(newScan(scanId, "Completed"));
+        putPayload(cache, scanId);
+    }
+
+    /**
+     * Writes random bytes, which gzip cannot compress, so each scan uses a bit more than PAYLOAD bytes.
+     */
+    private static void putPayload(ScanResponseCache cache, int scanId) {
+        byte[] payload = new byte[PAYLOAD];
+        new Random(scanId).nextBytes(payload);
+        Assert.assertTrue(cache.put(scanId, ScanResponseCache.RESULTS, out -> out.write(payload)));
+    }
+
+    private static Scan newScan(int scanId, String status) {
+        Scan scan = new Scan();
+        scan.setId(scanId);
+        scan.setStatus(status);
+        return scan;
+    }
+
+    private Path getScanDirectory(int scanId) {
+        return folder.getRoot().toPath().resolve("scan-cache").resolve(String.valueOf(scanId));
+    }
+
+    private long getSizeOnDisk() throws Exception {
+        try (Stream<Path> files = Files.walk(folder.getRoot().toPath())) {
+            return files.filter(Files::isRegularFile).mapToLong(file -> file.toFile().length()).sum();
+        }
+    }
+}
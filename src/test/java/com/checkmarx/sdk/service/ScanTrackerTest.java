@@ -0,0 +1,162 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import com.checkmarx.sdk.dto.od.ScanStatus;
+import com.checkmarx.sdk.exception.CheckmarxException;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ScanTrackerTest {
+    private static final int POLLING = 50;
+
+    private ScanTracker tracker;
+
+    @After
+    public void shutdown() {
+        if (tracker != null) {
+            tracker.shutdown();
+        }
+    }
+
+    @Test
+    public void track_completesWhenScanFinishes() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        tracker = new ScanTracker(newProperties(false), scanId ->
+                newStatus(polls.incrementAndGet() < 3 ? ScanStatus.Status.PROCESSING : ScanStatus.Status.COMPLETED), null);
+
+        ScanStatus status = tracker.track(1, null).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(ScanStatus.Status.COMPLETED, status.getStatus());
+        Assert.assertEquals(3, polls.get());
+        Assert.assertEquals(0, tracker.getTrackedScanCount());
+    }
+
+    @Test
+    public void track_backsOffAfterPollErrors() throws Exception {
+        List<Long> pollTimes = Collections.synchronizedList(new ArrayList<>());
+        tracker = new ScanTracker(newProperties(false), scanId -> {
+            pollTimes.add(System.currentTimeMillis());
+            if (pollTimes.size() < 3) {
+                throw new CheckmarxException("Unavailable");
+            }
+            return newStatus(ScanStatus.Status.COMPLETED);
+        }, null);
+
+        ScanStatus status = tracker.track(1, null).get(5, TimeUnit.SECONDS);
+
+        Assert.assertEquals(ScanStatus.Status.COMPLETED, status.getStatus());
+        Assert.assertEquals(3, pollTimes.size());
+        Assert.assertTrue(pollTimes.get(1) - pollTimes.get(0) >= 2 * POLLING);
+        Assert.assertTrue(pollTimes.get(2) - pollTimes.get(1) >= 4 * POLLING);
+    }
+
+    @Test
+    public void track_failsWhenPollErrorsPersist() throws Exception {
+        AtomicInteger polls = new AtomicInteger();
+        tracker = new ScanTracker(newProperties(false), scanId -> {
+            polls.incrementAndGet();
+            throw new CheckmarxException("Unavailable");
+        }, null);
+
+        try {
+            tracker.track(1, null).get(5, TimeUnit.SECONDS);
+            Assert.fail("Scan should fail");
+        } catch (ExecutionException e) {
+            Assert.assertTrue(e.getCause() instanceof CheckmarxException);
+        }
+        Assert.assertEquals(3, polls.get());
+        Assert.assertEquals(0, tracker.getTrackedScanCount());
+    }
+
+    @Test
+    public void track_failsAfterScanTimeout() throws Exception {
+        tracker = new ScanTracker(newProperties(false), scanId -> newStatus(ScanStatus.Status.PROCESSING), null);
+        long submittedAt = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(2);
+
+        try {
+            tracker.track(1, null, submittedAt).get(5, TimeUnit.SECONDS);
+            Assert.fail("Scan should time out");
+        } catch (ExecutionException e) {
+            Assert.assertEquals("Timeout exceeded during scan", e.getCause().getMessage());
+        }
+    }
+
+    @Test
+    public void batch_completesAllScansWithOneRequest() throws Exception {
+        AtomicInteger singlePolls = new AtomicInteger();
+        AtomicInteger batchPolls = new AtomicInteger();
+        tracker = new ScanTracker(newProperties(true), scanId -> {
+            singlePolls.incrementAndGet();
+            return newStatus(ScanStatus.Status.COMPLETED);
+        }, () -> {
+            batchPolls.incrementAndGet();
+            Map<Integer, ScanStatus> statuses = new HashMap<>();
+            statuses.put(1, newStatus(ScanStatus.Status.COMPLETED));
+            statuses.put(2, newStatus(ScanStatus.Status.FAILED));
+            return statuses;
+        });
+
+        CompletableFuture<ScanStatus> first = tracker.track(1, null);
+        CompletableFuture<ScanStatus> second = tracker.track(2, null);
+
+        Assert.assertEquals(ScanStatus.Status.COMPLETED, first.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(ScanStatus.Status.FAILED, second.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(1, batchPolls.get());
+        Assert.assertEquals(0, singlePolls.get());
+    }
+
+    @Test
+    public void batch_fallsBackToSinglePollsOnFailure() throws Exception {
+        AtomicInteger singlePolls = new AtomicInteger();
+        tracker = new ScanTracker(newProperties(true), scanId -> {
+            singlePolls.incrementAndGet();
+            return newStatus(ScanStatus.Status.COMPLETED);
+        }, () -> {
+            throw new CheckmarxException("Unavailable");
+        });
+
+        CompletableFuture<ScanStatus> first = tracker.track(1, null);
+        CompletableFuture<ScanStatus> second = tracker.track(2, null);
+
+        Assert.assertEquals(ScanStatus.Status.COMPLETED, first.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(ScanStatus.Status.COMPLETED, second.get(5, TimeUnit.SECONDS).getStatus());
+        Assert.assertEquals(2, singlePolls.get());
+    }
+
+    @Test
+    public void shutdown_failsWaiters() throws Exception {
+        tracker = new ScanTracker(newProperties(false), scanId -> newStatus(ScanStatus.Status.PROCESSING), null);
+        CompletableFuture<ScanStatus> future = tracker.track(1, null);
+
+        tracker.shutdown();
+
+        Assert.assertTrue(tracker.isStopped());
+        Assert.assertTrue(future.isCompletedExceptionally());
+        Assert.assertTrue(tracker.track(2, null).isCompletedExceptionally());
+    }
+
+    private static CxProperties newProperties(boolean batch) {
+        CxProperties properties = new CxProperties();
+        properties.setScanPolling(POLLING);
+        properties.setScanTimeout(1);
+        properties.setScanBatchPolling(batch);
+        return properties;
+    }
+
+    private static ScanStatus newStatus(ScanStatus.Status status) {
+        ScanStatus scanStatus = new ScanStatus();
+        scanStatus.setStatus(status);
+        return scanStatus;
+    }
+}
@@ -0,0 +1,58 @@
+package com.checkmarx.sdk.service;
+
+import com.checkmarx.sdk.config.CxProperties;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+public class WorkspaceManagerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void init_disablesJanitorForNonPositiveInterval() throws Exception {
+        CxProperties properties = new CxProperties();
+        properties.setGitClonePath(folder.getRoot().getAbsolutePath());
+        properties.setWorkspaceJanitorInterval(0);
+        WorkspaceManager workspaceManager = new WorkspaceManager(properties);
+        workspaceManager.init();
+        try (WorkspaceManager.Lease lease = workspaceManager.acquire("repo")) {
+            Assert.assertNotNull(lease.newArchive());
+        }
+        workspaceManager.shutdown();
+    }
+
+    @Test
+    public void sweep_keepsRetainedArchives() throws Exception {
+        CxProperties properties = new CxProperties();
+        properties.setGitClonePath(folder.getRoot().getAbsolutePath());
+        properties.setWorkspaceOrphanAge(1);
+        WorkspaceManager workspaceManager = new WorkspaceManager(properties);
+        long old = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10);
+
+        File retained;
+        File orphan;
+        try (WorkspaceManager.Lease lease = workspaceManager.acquire("repo")) {
+            File archive = lease.newArchive();
+            Assert.assertTrue(archive.createNewFile());
+            retained = lease.retain(archive);
+            orphan = lease.newArchive();
+            Assert.assertTrue(orphan.createNewFile());
+        }
+        Assert.assertTrue(retained.exists());
+        Assert.assertFalse(orphan.exists());
+
+        orphan = new File(folder.getRoot(), "cx.01234567-89ab-cdef-0123-456789abcdef.zip");
+        Assert.assertTrue(orphan.createNewFile());
+        Assert.assertTrue(orphan.setLastModified(old));
+        Assert.assertTrue(retained.setLastModified(old));
+        workspaceManager.sweep();
+
+        Assert.assertTrue(retained.exists());
+        Assert.assertFalse(orphan.exists());
+    }
+}
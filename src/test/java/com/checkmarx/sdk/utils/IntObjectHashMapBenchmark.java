@@ -0,0 +1,72 @@
+package com.checkmarx.sdk.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Builds the line details map of an issue with n occurrences and reads every line back, with a HashMap
+ * and with an IntObjectHashMap through its int methods. Run from the test classpath with
+ * org.openjdk.jmh.Main, add {@code -prof gc} for the allocated bytes per map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IntObjectHashMapBenchmark {
+    private static final Object DETAILS = new Object();
+
+    @Param({"1", "4", "16", "64", "512"})
+    public int size;
+
+    private int[] lines;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        lines = new int[size];
+        for (int i = 0; i < size; i++) {
+            lines[i] = 1 + random.nextInt(5000);
+        }
+    }
+
+    @Benchmark
+    public void hashMap(Blackhole blackhole) {
+        Map<Integer, Object> details = new HashMap<>();
+        for (int line : lines) {
+            details.put(line, DETAILS);
+        }
+        for (int line : lines) {
+            blackhole.consume(details.get(line));
+        }
+        blackhole.consume(details);
+    }
+
+    @Benchmark
+    public void intObjectHashMap(Blackhole blackhole) {
+        IntObjectHashMap<Object> details = new IntObjectHashMap<>();
+        for (int line : lines) {
+            details.put(line, DETAILS);
+        }
+        for (int line : lines) {
+            blackhole.consume(details.get(line));
+        }
+        blackhole.consume(details);
+    }
+}
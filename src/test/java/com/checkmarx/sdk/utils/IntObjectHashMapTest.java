@@ -0,0 +1,103 @@
+package com.checkmarx.sdk.utils;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Random;
+
+public class IntObjectHashMapTest {
+
+    @Test
+    public void randomOperations_matchHashMap() {
+        Random random = new Random(42);
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int i = 0; i < 100000; i++) {
+            int key = random.nextInt(2000) - 1000;
+            switch (random.nextInt(4)) {
+                case 0:
+                case 1:
+                    String value = random.nextInt(10) == 0 ? null : Integer.toString(i);
+                    Assert.assertEquals(expected.put(key, value), map.put(key, value));
+                    break;
+                case 2:
+                    Assert.assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                default:
+                    Assert.assertEquals(expected.get(key), map.get(key));
+                    Assert.assertEquals(expected.containsKey(key), map.containsKey(key));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        Assert.assertEquals(expected, map);
+        Assert.assertEquals(map, expected);
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Test
+    public void mapMethods_handleOtherKeyTypes() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(Integer.valueOf(7), "seven");
+        Assert.assertEquals("seven", map.get(7));
+        Assert.assertNull(map.get("7"));
+        Assert.assertNull(map.get(null));
+        Assert.assertFalse(map.containsKey(7L));
+        Assert.assertNull(map.remove("7"));
+        Assert.assertEquals(1, map.size());
+    }
+
+    @Test
+    public void nullValues_areDistinctFromMissingKeys() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>();
+        map.put(1, null);
+        Assert.assertTrue(map.containsKey(1));
+        Assert.assertFalse(map.containsKey(2));
+        Assert.assertTrue(map.containsValue(null));
+        Assert.assertNull(map.remove(1));
+        Assert.assertFalse(map.containsKey(1));
+    }
+
+    @Test
+    public void iterator_removesAndUpdatesEntries() {
+        IntObjectHashMap<Integer> map = new IntObjectHashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put(i, Integer.valueOf(i));
+        }
+        Iterator<Map.Entry<Integer, Integer>> iterator = map.entrySet().iterator();
+        int seen = 0;
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Integer> entry = iterator.next();
+            seen++;
+            if (entry.getKey() % 2 == 0) {
+                iterator.remove();
+            } else {
+                entry.setValue(-entry.getValue());
+            }
+        }
+        Assert.assertEquals(100, seen);
+        Assert.assertEquals(50, map.size());
+        for (int i = 0; i < 100; i++) {
+            Assert.assertEquals(i % 2 == 0 ? null : Integer.valueOf(-i), map.get(i));
+        }
+        map.keySet().removeIf(key -> key < 50);
+        Assert.assertEquals(25, map.size());
+        map.clear();
+        Assert.assertTrue(map.isEmpty());
+        Assert.assertNull(map.get(99));
+    }
+
+    @Test
+    public void repeatedPutAndRemove_reclaimsRemovedSlots() {
+        IntObjectHashMap<String> map = new IntObjectHashMap<>(4);
+        for (int i = 0; i < 100000; i++) {
+            map.put(i, "value");
+            map.remove(i);
+        }
+        Assert.assertTrue(map.isEmpty());
+        map.put(5, "five");
+        Assert.assertEquals("five", map.get(5));
+    }
+}